@@ -0,0 +1,106 @@
+package com.yummly.web.benchmarks;
+
+import com.yummly.web.WebApplication;
+import com.yummly.web.model.Group;
+import com.yummly.web.model.GroupMembership;
+import com.yummly.web.model.Recipe;
+import com.yummly.web.model.User;
+import com.yummly.web.repo.GroupMembershipRepo;
+import com.yummly.web.repo.GroupRepo;
+import com.yummly.web.repo.UserRepo;
+import com.yummly.web.repository.RecipeRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the real application against a private in-memory H2 database and seeds it, so benchmarks
+ * run the production repositories, services and Hibernate configuration.
+ */
+final class BenchmarkApplication {
+
+    private static final int BATCH = 500;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType type, Map<String, Object> overrides) throws IOException {
+        Path uploadDir = Files.createTempDirectory("yummly-bench-uploads");
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:bench-" + System.nanoTime()
+                + ";DB_CLOSE_DELAY=-1;MODE=MySQL;NON_KEYWORDS=USER,VALUE");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("file.upload-dir", uploadDir.toString());
+        properties.put("access-log.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("spring.main.banner-mode", "off");
+        properties.putAll(overrides);
+        return new SpringApplicationBuilder(WebApplication.class)
+                .web(type)
+                .properties(properties)
+                .run();
+    }
+
+    // Users, groups with a handful of members each, and recipes spread over the users
+    static List<User> seed(ConfigurableApplicationContext context, int users, int groups, int recipes) {
+        UserRepo userRepo = context.getBean(UserRepo.class);
+        GroupRepo groupRepo = context.getBean(GroupRepo.class);
+        GroupMembershipRepo membershipRepo = context.getBean(GroupMembershipRepo.class);
+        RecipeRepository recipeRepository = context.getBean(RecipeRepository.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        List<User> savedUsers = new ArrayList<>();
+        for (int start = 0; start < users; start += BATCH) {
+            List<User> batch = new ArrayList<>();
+            for (int i = start; i < Math.min(users, start + BATCH); i++) {
+                User user = Fixtures.user(i + 1);
+                user.setId(0);
+                batch.add(user);
+            }
+            savedUsers.addAll(transaction.execute(status -> userRepo.saveAll(batch)));
+        }
+
+        for (int start = 0; start < groups; start += BATCH) {
+            int from = start;
+            transaction.executeWithoutResult(status -> {
+                for (int i = from; i < Math.min(groups, from + BATCH); i++) {
+                    Group group = Fixtures.group(i + 1, savedUsers.get(i % savedUsers.size()));
+                    group.setId(null);
+                    group = groupRepo.save(group);
+                    for (int m = 0; m < 8; m++) {
+                        GroupMembership membership = new GroupMembership();
+                        membership.setGroup(group);
+                        membership.setUser(savedUsers.get((i * 7 + m) % savedUsers.size()));
+                        membership.setJoinedAt(LocalDateTime.now());
+                        membership.setModerator(m == 0);
+                        membershipRepo.save(membership);
+                    }
+                }
+            });
+        }
+
+        for (int start = 0; start < recipes; start += BATCH) {
+            List<Recipe> batch = new ArrayList<>();
+            for (int i = start; i < Math.min(recipes, start + BATCH); i++) {
+                Recipe recipe = Fixtures.recipe(i + 1, savedUsers.get(i % savedUsers.size()), 0);
+                recipe.setId(null);
+                batch.add(recipe);
+            }
+            transaction.executeWithoutResult(status -> recipeRepository.saveAll(batch));
+        }
+        return savedUsers;
+    }
+}
@@ -0,0 +1,134 @@
+package com.yummly.web.benchmarks;
+
+import com.yummly.web.dto.GroupDTO;
+import com.yummly.web.dto.GroupMessageDTO;
+import com.yummly.web.model.User;
+import com.yummly.web.service.GroupMessageService;
+import com.yummly.web.service.GroupService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second through the two bulk-insert paths, GroupService.addMembers and
+ * GroupMessageService.importMessages, with JDBC batching off (batch size 1: one statement per row,
+ * as with IDENTITY ids) and on. In-memory H2 makes a round trip almost free, so there the gap is
+ * mostly Hibernate's per-statement cost. To include network round trips, run against a scratch
+ * MySQL schema by passing -jvmArgsAppend "-Dbench.jdbc-url=jdbc:mysql://localhost:3306/yummly_bench?rewriteBatchedStatements=true
+ * -Dbench.db-user=root -Dbench.db-password=..." in jmh.args.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkInsertBenchmark {
+
+    private static final int USERS = 2_000;
+    private static final int ROWS = 1_000;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private GroupService groupService;
+    private GroupMessageService messageService;
+    private long adminId;
+    private List<Long> memberIds;
+    private Long chatGroupId;
+    private List<GroupMessageDTO> messages;
+    private EntityManager entityManager;
+    private TransactionTemplate transaction;
+
+    @Setup
+    public void setUp() throws Exception {
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("jdbc.batch-size", batchSize);
+        String jdbcUrl = System.getProperty("bench.jdbc-url");
+        if (jdbcUrl != null) {
+            overrides.put("spring.datasource.url", jdbcUrl);
+            overrides.put("spring.datasource.username", System.getProperty("bench.db-user", "root"));
+            overrides.put("spring.datasource.password", System.getProperty("bench.db-password", ""));
+        }
+        context = BenchmarkApplication.start(WebApplicationType.NONE, overrides);
+        List<User> users = BenchmarkApplication.seed(context, USERS, 0, 0);
+        groupService = context.getBean(GroupService.class);
+        messageService = context.getBean(GroupMessageService.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        adminId = users.get(0).getId();
+        memberIds = users.subList(1, ROWS + 1).stream().map(User::getId).toList();
+        chatGroupId = newGroup();
+        groupService.addMembers(chatGroupId, adminId, memberIds);
+        messages = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            GroupMessageDTO message = new GroupMessageDTO();
+            message.setUserId(memberIds.get(i));
+            message.setContent("Imported message " + i + " about " + Fixtures.DISHES[i % Fixtures.DISHES.length]);
+            messages.add(message);
+        }
+    }
+
+    // Empty the tables between iterations; left to grow, the in-memory database slows every later iteration
+    @TearDown(Level.Iteration)
+    public void clearInserted() {
+        transaction.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM GroupMessage").executeUpdate();
+            entityManager.createQuery("DELETE FROM GroupMembership m WHERE m.group.id <> :groupId")
+                    .setParameter("groupId", chatGroupId)
+                    .executeUpdate();
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int addMembers() {
+        // A fresh group each time, so every row is an insert
+        return groupService.addMembers(newGroup(), adminId, memberIds);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int importMessages() {
+        return messageService.importMessages(chatGroupId, adminId, messages);
+    }
+
+    private Long newGroup() {
+        GroupDTO group = new GroupDTO();
+        group.setName("Bulk group " + System.nanoTime());
+        group.setDescription("Created by BulkInsertBenchmark");
+        group.setCuisineType("Italian");
+        return groupService.createGroup(group, adminId).getId();
+    }
+}
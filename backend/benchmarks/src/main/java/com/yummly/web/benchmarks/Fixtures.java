@@ -0,0 +1,69 @@
+package com.yummly.web.benchmarks;
+
+import com.yummly.web.model.Group;
+import com.yummly.web.model.Recipe;
+import com.yummly.web.model.RecipeComment;
+import com.yummly.web.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Detached entities shaped like production rows, for benchmarks that don't touch the database
+final class Fixtures {
+
+    static final String[] CUISINES = {"Italian", "Mexican", "Japanese", "Indian", "Thai", "French", "Greek", "Korean"};
+    static final String[] DISHES = {"chicken curry", "mushroom risotto", "beef tacos", "miso ramen", "pad thai",
+            "ratatouille", "moussaka", "bibimbap", "lentil soup", "lemon tart"};
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User " + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword("secret");
+        return user;
+    }
+
+    static Group group(long id, User admin) {
+        Group group = new Group();
+        group.setId(id);
+        group.setName(CUISINES[(int) (id % CUISINES.length)] + " cooks " + id);
+        group.setDescription("A group for people who like " + CUISINES[(int) (id % CUISINES.length)] + " food");
+        group.setCuisineType(CUISINES[(int) (id % CUISINES.length)]);
+        group.setImageUrl("groups/" + id + ".jpg");
+        group.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        group.setAdmin(admin);
+        return group;
+    }
+
+    static Recipe recipe(long id, User author, int comments) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setTitle(DISHES[(int) (id % DISHES.length)] + " #" + id);
+        recipe.setInstructions("Chop, fry, simmer and serve. ".repeat(20));
+        recipe.setImageUrl("recipes/" + id + ".jpg");
+        recipe.setCuisine(CUISINES[(int) (id % CUISINES.length)]);
+        recipe.setIngredients(new ArrayList<>(List.of("onion", "garlic", "olive oil", "salt", "pepper",
+                "tomato", "chicken stock", "parsley")));
+        recipe.setDietaryPreferences(new ArrayList<>(List.of("high-protein", "dairy-free")));
+        recipe.setPrepTimeMinutes(15);
+        recipe.setCookTimeMinutes(40);
+        recipe.setServings(4);
+        recipe.setCreatedAt(1_700_000_000_000L + id);
+        recipe.setUser(author);
+        for (int i = 0; i < comments; i++) {
+            RecipeComment comment = new RecipeComment();
+            comment.setId(id * 100 + i);
+            comment.setContent("Made this last night, turned out great (" + i + ")");
+            comment.setUser(user(1000 + i));
+            comment.setRecipe(recipe);
+            comment.setCreatedAt(1_700_000_000_000L + i);
+            recipe.getComments().add(comment);
+        }
+        return recipe;
+    }
+}
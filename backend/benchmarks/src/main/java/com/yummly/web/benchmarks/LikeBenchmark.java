@@ -0,0 +1,97 @@
+package com.yummly.web.benchmarks;
+
+import com.yummly.web.dto.LikeStateDTO;
+import com.yummly.web.model.Post;
+import com.yummly.web.model.User;
+import com.yummly.web.repo.PostRepository;
+import com.yummly.web.service.LikeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Like writes from 8 threads on one hot post: the toggle endpoint (POST, delete else insert)
+ * against the idempotent PUT/DELETE pair (one statement each). Each thread flips between liked and
+ * unliked, so both sides do the same state changes. With users=1 every thread works on the same
+ * (post, user) pair, the double-click case where requests race on the likes unique key; with
+ * users=64 they mostly touch different rows and only share the post's counter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LikeBenchmark {
+
+    @Param({"1", "64"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private LikeService likeService;
+    private Long postId;
+    private List<Long> userIds;
+
+    @State(Scope.Thread)
+    public static class Flip {
+        boolean like = true;
+
+        boolean next() {
+            boolean current = like;
+            like = !like;
+            return current;
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start(WebApplicationType.NONE, Map.of());
+        List<User> seeded = BenchmarkApplication.seed(context, users, 0, 0);
+        likeService = context.getBean(LikeService.class);
+        userIds = seeded.stream().map(User::getId).toList();
+
+        Post post = new Post();
+        post.setTitle("Hot post");
+        post.setDescription("Liked from every thread");
+        post.setUser(seeded.get(0));
+        postId = context.getBean(PostRepository.class).save(post).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean toggle() {
+        return likeService.toggleLike(postId, randomUser());
+    }
+
+    @Benchmark
+    public LikeStateDTO putDelete(Flip flip) {
+        Long userId = randomUser();
+        return flip.next() ? likeService.like(postId, userId) : likeService.unlike(postId, userId);
+    }
+
+    private Long randomUser() {
+        return userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+    }
+}
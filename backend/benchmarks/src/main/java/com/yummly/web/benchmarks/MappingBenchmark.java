@@ -0,0 +1,103 @@
+package com.yummly.web.benchmarks;
+
+import com.yummly.web.controller.RecipeController;
+import com.yummly.web.dto.GroupDTO;
+import com.yummly.web.dto.PostDTO;
+import com.yummly.web.dto.RecipeDTO;
+import com.yummly.web.model.Group;
+import com.yummly.web.model.Recipe;
+import com.yummly.web.model.User;
+import com.yummly.web.repo.GroupMembershipRepo;
+import com.yummly.web.service.GroupService;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping on its own, without the database: GroupService and RecipeController's
+ * private converters (called reflectively, with the same ModelMapper the app configures) and the
+ * PostDTO projection constructor the feed uses. The membership count GroupService looks up per
+ * group is stubbed, so this measures only the mapping; {@link SearchBenchmark} covers the queries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private GroupService groupService;
+    private Method groupToDTO;
+    private Group group;
+
+    private RecipeController recipeController;
+    private Method recipeToDTO;
+    private Recipe recipe;
+
+    private User author;
+
+    @Setup
+    public void setUp() throws Exception {
+        author = Fixtures.user(1);
+        group = Fixtures.group(1, author);
+        recipe = Fixtures.recipe(1, author, 3);
+
+        groupService = new GroupService();
+        inject(groupService, "membershipRepo", Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {GroupMembershipRepo.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "countByGroup" -> 12;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "GroupMembershipRepo stub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }));
+        groupToDTO = GroupService.class.getDeclaredMethod("convertToDTO", Group.class);
+        groupToDTO.setAccessible(true);
+
+        recipeController = new RecipeController();
+        inject(recipeController, "modelMapper", new ModelMapper());
+        recipeToDTO = RecipeController.class.getDeclaredMethod("convertToDTO", Recipe.class);
+        recipeToDTO.setAccessible(true);
+    }
+
+    @Benchmark
+    public GroupDTO groupServiceConvertToDTO() throws Exception {
+        return (GroupDTO) groupToDTO.invoke(groupService, group);
+    }
+
+    @Benchmark
+    public RecipeDTO recipeControllerConvertToDTO() throws Exception {
+        return (RecipeDTO) recipeToDTO.invoke(recipeController, recipe);
+    }
+
+    @Benchmark
+    public PostDTO postDtoProjection() {
+        PostDTO post = new PostDTO(42L, "Sunday roast", "ab/cd/abcd.jpg", null, "ab/cd/abcd-320.webp",
+                "ab/cd/abcd-960.webp", "Slow-roasted with root vegetables", author.getName());
+        post.setLikeCount(17);
+        post.setCommentCount(4);
+        post.setLikedByViewer(true);
+        return post;
+    }
+
+    private static void inject(Object target, String fieldName, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,77 @@
+package com.yummly.web.benchmarks;
+
+import com.yummly.web.dto.GroupDTO;
+import com.yummly.web.model.Recipe;
+import com.yummly.web.repository.RecipeRepository;
+import com.yummly.web.service.GroupService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The search and listing paths against a seeded H2 database: recipe search, group search (which
+ * maps every hit through GroupService.convertToDTO, one membership count per group) and the full
+ * group listing. Numbers include Hibernate and JDBC, not just the SQL engine.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    private static final int USERS = 2_000;
+    private static final int GROUPS = 400;
+    private static final int RECIPES = 10_000;
+
+    @Param({"chicken", "Italian", "zzz"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private RecipeRepository recipeRepository;
+    private GroupService groupService;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start(WebApplicationType.NONE, Map.of());
+        BenchmarkApplication.seed(context, USERS, GROUPS, RECIPES);
+        recipeRepository = context.getBean(RecipeRepository.class);
+        groupService = context.getBean(GroupService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Recipe> searchRecipes() {
+        return recipeRepository.searchRecipes(query);
+    }
+
+    @Benchmark
+    public List<GroupDTO> searchGroups() {
+        return groupService.searchGroups(query);
+    }
+
+    @Benchmark
+    public List<GroupDTO> listAllGroups() {
+        return groupService.getAllGroups();
+    }
+}
@@ -0,0 +1,141 @@
+package com.yummly.web.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.yummly.web.dto.FeedPageDTO;
+import com.yummly.web.dto.GroupDTO;
+import com.yummly.web.dto.PostDTO;
+import com.yummly.web.dto.ProfileItemDTO;
+import com.yummly.web.dto.ProfileSummaryDTO;
+import com.yummly.web.dto.RecipeCommentDTO;
+import com.yummly.web.dto.RecipeDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the main response bodies, with an ObjectMapper configured the way
+ * Spring Boot configures the one behind the REST controllers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private ObjectWriter feedWriter;
+    private ObjectWriter recipeWriter;
+    private ObjectWriter groupsWriter;
+    private ObjectWriter profileWriter;
+
+    private FeedPageDTO feedPage;
+    private RecipeDTO recipe;
+    private List<GroupDTO> groups;
+    private ProfileSummaryDTO profile;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        feedWriter = mapper.writerFor(FeedPageDTO.class);
+        recipeWriter = mapper.writerFor(RecipeDTO.class);
+        groupsWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, GroupDTO.class));
+        profileWriter = mapper.writerFor(ProfileSummaryDTO.class);
+
+        // A full feed page
+        List<PostDTO> posts = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            PostDTO post = new PostDTO(id, "Post " + id, "ab/cd/" + id + ".jpg", null, "ab/cd/" + id + "-320.webp",
+                    "ab/cd/" + id + "-960.webp", "A description long enough to look like a real caption " + id,
+                    "User " + id);
+            post.setLikeCount(id * 3);
+            post.setCommentCount(id);
+            posts.add(post);
+        }
+        feedPage = new FeedPageDTO(posts, "MjA");
+
+        recipe = new RecipeDTO();
+        recipe.setId(1L);
+        recipe.setTitle("Mushroom risotto");
+        recipe.setInstructions("Chop, fry, simmer and serve. ".repeat(20));
+        recipe.setIngredients(List.of("arborio rice", "mushrooms", "onion", "garlic", "parmesan", "white wine"));
+        recipe.setCuisine("Italian");
+        recipe.setDietaryPreferences(List.of("vegetarian"));
+        recipe.setPrepTimeMinutes(15);
+        recipe.setCookTimeMinutes(35);
+        recipe.setServings(4);
+        recipe.setUserId(1L);
+        recipe.setUserName("User 1");
+        recipe.setCreatedAt(1_700_000_000_000L);
+        List<RecipeCommentDTO> comments = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            RecipeCommentDTO comment = new RecipeCommentDTO();
+            comment.setId(id);
+            comment.setContent("Made this last night, turned out great");
+            comment.setUserId(id);
+            comment.setUserName("User " + id);
+            comment.setRecipeId(1L);
+            comment.setCreatedAt(1_700_000_000_000L + id);
+            comments.add(comment);
+        }
+        recipe.setComments(comments);
+
+        groups = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            GroupDTO group = new GroupDTO();
+            group.setId(id);
+            group.setName("Group " + id);
+            group.setDescription("A group for people who like cooking together");
+            group.setCuisineType(Fixtures.CUISINES[(int) (id % Fixtures.CUISINES.length)]);
+            group.setImageUrl("groups/" + id + ".jpg");
+            group.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+            group.setAdminId(id);
+            group.setAdminName("User " + id);
+            group.setMemberCount(12);
+            groups.add(group);
+        }
+
+        List<ProfileItemDTO> items = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            items.add(new ProfileItemDTO(id, "Item " + id, "ab/cd/" + id + ".jpg"));
+        }
+        profile = new ProfileSummaryDTO(1L, "User 1", 120, 14, 6, 2, posts.subList(0, 5), items, items);
+    }
+
+    @Benchmark
+    public byte[] feedPage() throws Exception {
+        return feedWriter.writeValueAsBytes(feedPage);
+    }
+
+    @Benchmark
+    public byte[] recipeWithComments() throws Exception {
+        return recipeWriter.writeValueAsBytes(recipe);
+    }
+
+    @Benchmark
+    public byte[] groupList() throws Exception {
+        return groupsWriter.writeValueAsBytes(groups);
+    }
+
+    @Benchmark
+    public byte[] profileSummary() throws Exception {
+        return profileWriter.writeValueAsBytes(profile);
+    }
+}
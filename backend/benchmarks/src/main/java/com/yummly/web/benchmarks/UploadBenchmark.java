@@ -0,0 +1,172 @@
+package com.yummly.web.benchmarks;
+
+import com.yummly.web.service.MediaStorageService;
+import com.yummly.web.service.StoredMedia;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * One large video upload (500 MB by default, -p sizeBytes=... to change) from bytes received to
+ * a stored blob. Each invocation starts from a fresh file standing in for what the container
+ * staged: a multipart part file on the same disk as the upload directory, or the raw request body.
+ * <ul>
+ *   <li>copyStream: the old PostService.saveMediaFile, Files.copy of the part's input stream</li>
+ *   <li>storeMultipart: MediaStorageService.store(MultipartFile), the part is moved into place and hashed</li>
+ *   <li>storeStream: MediaStorageService.store(InputStream), the PUT /api/posts/{id}/media body path</li>
+ * </ul>
+ * The container's own write of a multipart part is not timed, so copyStream against storeMultipart
+ * is the cost of the second write; the raw body path never has that staging write at all.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UploadBenchmark {
+
+    private static final int WRITE_BUFFER_BYTES = 8 * 1024 * 1024;
+
+    @Param({"524288000"})
+    public long sizeBytes;
+
+    private ConfigurableApplicationContext context;
+    private MediaStorageService storage;
+    private Path stagingDir;
+    private Path part;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start(WebApplicationType.NONE, Map.of());
+        storage = context.getBean(MediaStorageService.class);
+        // The container stages parts on the same disk, so moving one into place is a rename
+        stagingDir = Files.createDirectories(storage.getUploadRoot().resolve("staging"));
+    }
+
+    @Setup(Level.Invocation)
+    public void stageUpload() throws IOException {
+        // Random bytes, so every upload is a new blob rather than a dedupe hit
+        part = stagingDir.resolve("part-" + UUID.randomUUID() + ".tmp");
+        byte[] chunk = new byte[WRITE_BUFFER_BYTES];
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            for (long written = 0; written < sizeBytes; written += chunk.length) {
+                ThreadLocalRandom.current().nextBytes(chunk);
+                channel.write(ByteBuffer.wrap(chunk, 0, (int) Math.min(chunk.length, sizeBytes - written)));
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearUploads() throws IOException {
+        Files.deleteIfExists(part);
+        try (Stream<Path> files = Files.walk(storage.getUploadRoot())) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(storage.getUploadRoot())) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long copyStream() throws IOException {
+        Path target = storage.getUploadRoot().resolve(UUID.randomUUID() + "_video.mp4");
+        try (InputStream in = new StagedPart(part, sizeBytes).getInputStream()) {
+            return Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Benchmark
+    public StoredMedia storeMultipart() {
+        return storage.store(new StagedPart(part, sizeBytes));
+    }
+
+    @Benchmark
+    public StoredMedia storeStream() throws IOException {
+        try (InputStream body = Files.newInputStream(part)) {
+            return storage.store(body, "video.mp4", storage.maxBytesFor("video/mp4"));
+        }
+    }
+
+    // A multipart part already written to disk by the container; transferTo renames it, as Tomcat's does
+    private record StagedPart(Path file, long size) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "video";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return "video.mp4";
+        }
+
+        @Override
+        public String getContentType() {
+            return "video/mp4";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(file);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.move(file, dest.toPath());
+        }
+    }
+}
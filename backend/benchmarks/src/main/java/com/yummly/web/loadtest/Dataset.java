@@ -0,0 +1,11 @@
+package com.yummly.web.loadtest;
+
+/**
+ * Ids of the seeded rows, in insertion order, for the workload to pick from. Index i of
+ * {@link #userGroup} is a group user i belongs to.
+ */
+record Dataset(long[] userIds, String[] emails, long[] postIds, long[] recipeIds, long[] groupIds,
+               long[] userGroup, String[] mediaFiles) {
+
+    static final String PASSWORD = "loadtest";
+}
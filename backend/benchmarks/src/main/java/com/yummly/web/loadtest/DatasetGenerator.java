@@ -0,0 +1,240 @@
+package com.yummly.web.loadtest;
+
+import com.yummly.web.service.MediaStorageService;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Fills an empty schema with a synthetic dataset using JDBC batch inserts, bypassing Hibernate so
+ * seeding a large dataset takes seconds rather than minutes. Everything derives from the seed, so
+ * the same options always produce the same rows. Ids of auto-increment tables are read back after
+ * each table rather than assumed, which keeps this correct on MySQL where auto-increment may not start
+ * at 1. Tables keyed by a pooled sequence get ids 1..n, and the sequence is then moved past them.
+ */
+final class DatasetGenerator {
+
+    private static final String[] CUISINES = {"Italian", "Mexican", "Japanese", "Indian", "Thai", "French", "Greek", "Korean"};
+    private static final String[] DISHES = {"chicken curry", "mushroom risotto", "beef tacos", "miso ramen", "pad thai",
+            "ratatouille", "moussaka", "bibimbap", "lentil soup", "lemon tart", "shakshuka", "pho"};
+    private static final String[] INGREDIENTS = {"onion", "garlic", "olive oil", "salt", "pepper", "tomato", "chicken",
+            "rice", "ginger", "chili", "lemon", "butter", "cumin", "basil", "soy sauce", "coconut milk"};
+    private static final String[] DIETS = {"vegetarian", "vegan", "gluten-free", "dairy-free", "high-protein"};
+
+    // allocationSize of the entities' @SequenceGenerator
+    private static final int SEQUENCE_ALLOCATION = 50;
+
+    private final JdbcTemplate jdbc;
+    private final MediaStorageService mediaStorage;
+    private final LoadTestOptions options;
+    private final SplittableRandom random;
+    private final Timestamp epoch = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0));
+
+    DatasetGenerator(JdbcTemplate jdbc, MediaStorageService mediaStorage, LoadTestOptions options) {
+        this.jdbc = jdbc;
+        this.mediaStorage = mediaStorage;
+        this.options = options;
+        this.random = new SplittableRandom(options.seed);
+    }
+
+    Dataset generate() throws IOException {
+        Long existing = jdbc.queryForObject("SELECT COUNT(*) FROM user", Long.class);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("Database already has " + existing + " users; seed into an empty schema");
+        }
+
+        String[] emails = new String[options.users];
+        for (int i = 0; i < options.users; i++) {
+            emails[i] = "user" + i + "@loadtest.example";
+        }
+        insert("users", "INSERT INTO user (name, email, password) VALUES (?, ?, ?)", options.users,
+                i -> new Object[] {"Load User " + i, emails[i], Dataset.PASSWORD});
+        long[] userIds = ids("user");
+
+        String[] media = storeMedia();
+
+        insert("posts", "INSERT INTO posts (title, description, image, user_id, like_count) VALUES (?, ?, ?, ?, 0)",
+                options.posts, i -> new Object[] {
+                        DISHES[i % DISHES.length] + " night #" + i,
+                        "Cooked " + DISHES[random.nextInt(DISHES.length)] + " for " + (2 + random.nextInt(6)) + " people",
+                        media[random.nextInt(media.length)],
+                        userIds[random.nextInt(userIds.length)]});
+        long[] postIds = ids("posts");
+
+        insert("likes", "INSERT INTO likes (post_id, user_id) VALUES (?, ?)", options.posts * options.likesPerPost,
+                new IntFunction<>() {
+                    int start;
+
+                    @Override
+                    public Object[] apply(int i) {
+                        // Consecutive users from a random offset, so a post never gets two likes from one user
+                        if (i % options.likesPerPost == 0) {
+                            start = random.nextInt(userIds.length);
+                        }
+                        return new Object[] {postIds[i / options.likesPerPost],
+                                userIds[(start + i % options.likesPerPost) % userIds.length]};
+                    }
+                });
+        jdbc.update("UPDATE posts SET like_count = (SELECT COUNT(*) FROM likes l WHERE l.post_id = posts.id)");
+
+        insert("comments", "INSERT INTO comment (id, content, post_id, user_id, created_at) VALUES (?, ?, ?, ?, ?)",
+                options.posts * options.commentsPerPost, i -> new Object[] {
+                        i + 1L,
+                        "Looks delicious, saving this one (" + i + ")",
+                        postIds[i / options.commentsPerPost],
+                        userIds[random.nextInt(userIds.length)],
+                        minutesAfterEpoch(i)});
+        restartSequence("comment_seq", options.posts * options.commentsPerPost);
+
+        insert("recipes", "INSERT INTO recipe (title, instructions, image_url, cuisine, prep_time_minutes, "
+                        + "cook_time_minutes, servings, user_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                options.recipes, i -> new Object[] {
+                        DISHES[i % DISHES.length] + " " + i,
+                        "Prep everything, cook it gently, season and serve. ".repeat(1 + random.nextInt(8)),
+                        media[random.nextInt(media.length)],
+                        CUISINES[random.nextInt(CUISINES.length)],
+                        5 + random.nextInt(30),
+                        10 + random.nextInt(90),
+                        1 + random.nextInt(8),
+                        userIds[random.nextInt(userIds.length)],
+                        epoch.getTime() + i * 60_000L});
+        long[] recipeIds = ids("recipe");
+        insert("ingredients", "INSERT INTO recipe_ingredients (recipe_id, ingredients) VALUES (?, ?)",
+                recipeIds.length * 6, i -> new Object[] {recipeIds[i / 6], INGREDIENTS[random.nextInt(INGREDIENTS.length)]});
+        insert("dietary preferences", "INSERT INTO recipe_dietary_preferences (recipe_id, dietary_preferences) VALUES (?, ?)",
+                recipeIds.length, i -> new Object[] {recipeIds[i], DIETS[random.nextInt(DIETS.length)]});
+
+        // Each group takes the next window of users as members, the first one being its admin
+        int members = options.membersPerGroup;
+        insert("groups", "INSERT INTO community_groups (name, description, cuisine_type, image_url, created_at, admin_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                options.groups, g -> new Object[] {
+                        CUISINES[g % CUISINES.length] + " cooks " + g,
+                        "A group for people who love " + CUISINES[g % CUISINES.length] + " food",
+                        CUISINES[g % CUISINES.length],
+                        media[g % media.length],
+                        minutesAfterEpoch(g),
+                        userIds[memberIndex(g, 0)]});
+        long[] groupIds = ids("community_groups");
+        long[] userGroup = new long[userIds.length];
+        Arrays.fill(userGroup, -1);
+        for (int g = 0; g < groupIds.length; g++) {
+            for (int m = 0; m < members; m++) {
+                if (userGroup[memberIndex(g, m)] < 0) {
+                    userGroup[memberIndex(g, m)] = groupIds[g];
+                }
+            }
+        }
+        insert("memberships", "INSERT INTO group_memberships (id, user_id, group_id, joined_at, is_moderator) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                groupIds.length * members, i -> new Object[] {
+                        i + 1L,
+                        userIds[memberIndex(i / members, i % members)],
+                        groupIds[i / members],
+                        minutesAfterEpoch(i),
+                        i % members == 1});
+        restartSequence("group_memberships_seq", groupIds.length * members);
+        insert("messages", "INSERT INTO group_messages (id, content, created_at, group_id, user_id) VALUES (?, ?, ?, ?, ?)",
+                groupIds.length * options.messagesPerGroup, i -> new Object[] {
+                        i + 1L,
+                        "Has anyone tried " + DISHES[random.nextInt(DISHES.length)] + " with extra "
+                                + INGREDIENTS[random.nextInt(INGREDIENTS.length)] + "?",
+                        minutesAfterEpoch(i),
+                        groupIds[i / options.messagesPerGroup],
+                        userIds[memberIndex(i / options.messagesPerGroup, random.nextInt(members))]});
+        restartSequence("group_messages_seq", groupIds.length * options.messagesPerGroup);
+        insert("discussions", "INSERT INTO group_discussions (id, title, content, created_at, user_id, group_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                groupIds.length * options.discussionsPerGroup, i -> new Object[] {
+                        i + 1L,
+                        "Best way to make " + DISHES[random.nextInt(DISHES.length)] + "?",
+                        "I've been experimenting with this for a while and wanted to compare notes. ".repeat(3),
+                        minutesAfterEpoch(i),
+                        userIds[memberIndex(i / options.discussionsPerGroup, random.nextInt(members))],
+                        groupIds[i / options.discussionsPerGroup]});
+        restartSequence("group_discussions_seq", groupIds.length * options.discussionsPerGroup);
+
+        return new Dataset(userIds, emails, postIds, recipeIds, groupIds, userGroup, media);
+    }
+
+    private int memberIndex(int group, int member) {
+        return (int) (((long) group * options.membersPerGroup + member) % options.users);
+    }
+
+    private Timestamp minutesAfterEpoch(int minutes) {
+        return new Timestamp(epoch.getTime() + minutes * 60_000L);
+    }
+
+    private void insert(String label, String sql, int rows, IntFunction<Object[]> row) {
+        long started = System.nanoTime();
+        List<Object[]> batch = new ArrayList<>(Math.min(rows, options.batchSize));
+        for (int i = 0; i < rows; i++) {
+            batch.add(row.apply(i));
+            if (batch.size() == options.batchSize) {
+                jdbc.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(sql, batch);
+        }
+        System.out.printf("Seeded %,d %s in %,d ms%n", rows, label, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Next id handed out is maxId + 1: the pooled optimizer takes the value it reads as the top of its block
+    private void restartSequence(String sequence, long maxId) {
+        long next = maxId + SEQUENCE_ALLOCATION;
+        String database = jdbc.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if ("MySQL".equals(database)) {
+            // No sequences on MySQL; Hibernate keeps the next value in a one-row table
+            jdbc.update("UPDATE " + sequence + " SET next_val = ?", next);
+        } else {
+            jdbc.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+        }
+    }
+
+    private long[] ids(String table) {
+        return jdbc.queryForList("SELECT id FROM " + table + " ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // Distinct JPEGs in the content-addressed store, shared by posts, recipes and groups
+    private String[] storeMedia() throws IOException {
+        String[] files = new String[options.mediaFiles];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = mediaStorage.store(new ByteArrayInputStream(jpeg(random)), "seed-" + i + ".jpg",
+                    Long.MAX_VALUE).getFileName();
+        }
+        System.out.printf("Stored %d media files%n", files.length);
+        return files;
+    }
+
+    // A 640x480 photo-sized JPEG of random rectangles
+    static byte[] jpeg(SplittableRandom random) throws IOException {
+        BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int shape = 0; shape < 24; shape++) {
+            graphics.setColor(new Color(random.nextInt(0x1000000)));
+            graphics.fillRect(random.nextInt(640), random.nextInt(480), 20 + random.nextInt(300), 20 + random.nextInt(200));
+        }
+        graphics.dispose();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", bytes);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,213 @@
+package com.yummly.web.loadtest;
+
+import com.yummly.web.WebApplication;
+import com.yummly.web.service.MediaStorageService;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.PrintWriter;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * End-to-end load test: boots the application on a random port against H2 (or the MySQL database
+ * given with --jdbc-url), seeds a synthetic dataset, then runs the mixed {@link Workload} from
+ * --threads workers for --warmup plus --duration seconds and prints throughput and latency
+ * percentiles per endpoint. With --out the same table is also written as CSV.
+ *
+ * <p>{@code --virtual-threads true} serves requests on virtual threads; {@code --compare-threads true}
+ * runs the workload once on each (a fresh database per run) and prints the two side by side, usually
+ * with {@code --mix chat-upload} to focus on the endpoints blocked on JDBC and file I/O.
+ *
+ * <p>Run from backend/benchmarks with the loadtest profile, for example
+ * {@code ../mvnw package exec:exec -Ploadtest -Dloadtest.args="--users 20000 --posts 200000 --threads 32"}.
+ * For MySQL, point --jdbc-url at an empty schema and add rewriteBatchedStatements=true to the URL.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        List<String> csv = new ArrayList<>();
+        csv.add("threads,endpoint,requests,errors,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+        if (options.compareThreads) {
+            Map<String, LatencyRecorder.Summary> platform = runOnce(options, false);
+            report("Platform threads", "platform", options, platform, csv);
+            Map<String, LatencyRecorder.Summary> virtual = runOnce(options, true);
+            report("Virtual threads", "virtual", options, virtual, csv);
+            compare(options, platform, virtual);
+        } else {
+            String mode = options.virtualThreads ? "virtual" : "platform";
+            report(options.virtualThreads ? "Virtual threads" : "Platform threads", mode, options,
+                    runOnce(options, options.virtualThreads), csv);
+        }
+        if (options.out != null) {
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Path.of(options.out)))) {
+                csv.forEach(writer::println);
+            }
+            System.out.println("Wrote " + options.out);
+        }
+    }
+
+    private static Map<String, LatencyRecorder.Summary> runOnce(LoadTestOptions options, boolean virtualThreads)
+            throws Exception {
+        try (ConfigurableApplicationContext context = start(options, virtualThreads)) {
+            long seedStarted = System.nanoTime();
+            Dataset dataset = new DatasetGenerator(context.getBean(JdbcTemplate.class),
+                    context.getBean(MediaStorageService.class), options).generate();
+            // The generator writes through JDBC, behind the second-level cache's back
+            context.getBean(EntityManagerFactory.class).getCache().evictAll();
+            System.out.printf("Dataset ready in %,d ms%n", (System.nanoTime() - seedStarted) / 1_000_000);
+
+            String baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            return run(new Workload(client, baseUrl, dataset, options.mix, options.seed), options);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestOptions options, boolean virtualThreads) throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        if (options.jdbcUrl == null) {
+            properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest-" + (virtualThreads ? "virtual" : "platform")
+                    + ";DB_CLOSE_DELAY=-1;MODE=MySQL;NON_KEYWORDS=USER,VALUE");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        } else {
+            properties.put("spring.datasource.url", options.jdbcUrl);
+            properties.put("spring.jpa.hibernate.ddl-auto", "update");
+        }
+        properties.put("spring.datasource.username", options.dbUser);
+        properties.put("spring.datasource.password", options.dbPassword);
+        properties.put("spring.datasource.hikari.maximum-pool-size", Math.max(10, options.threads));
+        properties.put("server.port", 0);
+        // Ignored on virtual threads, where Tomcat starts one per request
+        properties.put("server.tomcat.threads.max", Math.max(200, options.threads * 2));
+        properties.put("spring.threads.virtual.enabled", virtualThreads);
+        properties.put("file.upload-dir", Files.createTempDirectory("yummly-loadtest-uploads").toString());
+        // Keep the run about request handling: no per-request log lines, no background sweeps
+        properties.put("access-log.enabled", "false");
+        properties.put("media.reclaim.initial-delay-ms", Long.MAX_VALUE / 2);
+        properties.put("logging.level.root", "WARN");
+        properties.put("spring.main.banner-mode", "off");
+        return new SpringApplicationBuilder(WebApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(properties)
+                .run();
+    }
+
+    private static Map<String, LatencyRecorder.Summary> run(Workload workload, LoadTestOptions options) throws Exception {
+        int operationCount = workload.operations().size();
+        List<LatencyRecorder[]> recorders = new ArrayList<>();
+        List<Workload.Worker> workers = new ArrayList<>();
+        for (int i = 0; i < options.threads; i++) {
+            workers.add(workload.worker(i, options.seed));
+            LatencyRecorder[] perOperation = new LatencyRecorder[operationCount];
+            for (int op = 0; op < operationCount; op++) {
+                perOperation[op] = new LatencyRecorder();
+            }
+            recorders.add(perOperation);
+        }
+
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(options.warmupSeconds).toNanos();
+        long stopAt = measureFrom + Duration.ofSeconds(options.durationSeconds).toNanos();
+        CountDownLatch done = new CountDownLatch(options.threads);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int i = 0; i < options.threads; i++) {
+            Workload.Worker worker = workers.get(i);
+            LatencyRecorder[] perOperation = recorders.get(i);
+            Thread thread = new Thread(() -> {
+                try {
+                    long now;
+                    while ((now = System.nanoTime()) < stopAt) {
+                        workload.step(worker, perOperation, now >= measureFrom);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            }, "load-worker-" + i);
+            thread.start();
+        }
+        System.out.printf("Running %d workers: %ds warmup, %ds measured%n",
+                options.threads, options.warmupSeconds, options.durationSeconds);
+        done.await();
+        if (failure.get() != null) {
+            throw new IllegalStateException("Load worker failed", failure.get());
+        }
+
+        Map<String, LatencyRecorder.Summary> summaries = new LinkedHashMap<>();
+        for (int op = 0; op < operationCount; op++) {
+            List<LatencyRecorder> forOperation = new ArrayList<>();
+            for (LatencyRecorder[] perOperation : recorders) {
+                forOperation.add(perOperation[op]);
+            }
+            summaries.put(workload.operations().get(op).name(), LatencyRecorder.merge(forOperation));
+        }
+        List<LatencyRecorder> all = new ArrayList<>();
+        recorders.forEach(perOperation -> all.addAll(List.of(perOperation)));
+        summaries.put("TOTAL", LatencyRecorder.merge(all));
+        return summaries;
+    }
+
+    private static void report(String title, String mode, LoadTestOptions options,
+                               Map<String, LatencyRecorder.Summary> summaries, List<String> csv) {
+        System.out.println();
+        System.out.println(title);
+        System.out.println(String.format(Locale.ROOT, "%-20s %10s %8s %10s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Map.Entry<String, LatencyRecorder.Summary> entry : summaries.entrySet()) {
+            LatencyRecorder.Summary summary = entry.getValue();
+            double throughput = summary.count() / (double) options.durationSeconds;
+            System.out.println(String.format(Locale.ROOT, "%-20s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                    entry.getKey(), summary.count(), summary.errors(), throughput,
+                    summary.percentileMillis(50), summary.percentileMillis(90), summary.percentileMillis(99),
+                    summary.percentileMillis(99.9), summary.maxMillis()));
+            csv.add(String.format(Locale.ROOT, "%s,%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                    mode, entry.getKey(), summary.count(), summary.errors(), throughput,
+                    summary.percentileMillis(50), summary.percentileMillis(90), summary.percentileMillis(99),
+                    summary.percentileMillis(99.9), summary.maxMillis()));
+        }
+    }
+
+    private static void compare(LoadTestOptions options, Map<String, LatencyRecorder.Summary> platform,
+                                Map<String, LatencyRecorder.Summary> virtual) {
+        System.out.println();
+        System.out.println("Virtual vs platform threads");
+        System.out.println(String.format(Locale.ROOT, "%-20s %12s %12s %8s %12s %12s %8s",
+                "endpoint", "platform r/s", "virtual r/s", "ratio", "platform p99", "virtual p99", "ratio"));
+        for (Map.Entry<String, LatencyRecorder.Summary> entry : platform.entrySet()) {
+            LatencyRecorder.Summary before = entry.getValue();
+            LatencyRecorder.Summary after = virtual.get(entry.getKey());
+            double beforeRate = before.count() / (double) options.durationSeconds;
+            double afterRate = after.count() / (double) options.durationSeconds;
+            System.out.println(String.format(Locale.ROOT, "%-20s %12.1f %12.1f %8.2f %12.2f %12.2f %8.2f",
+                    entry.getKey(), beforeRate, afterRate, ratio(afterRate, beforeRate),
+                    before.percentileMillis(99), after.percentileMillis(99),
+                    ratio(after.percentileMillis(99), before.percentileMillis(99))));
+        }
+    }
+
+    private static double ratio(double value, double baseline) {
+        return baseline == 0 ? 0 : value / baseline;
+    }
+}
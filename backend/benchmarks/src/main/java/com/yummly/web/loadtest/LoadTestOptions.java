@@ -0,0 +1,102 @@
+package com.yummly.web.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options, as {@code --name value} or {@code --name=value}. Every option has a default,
+ * so a bare run seeds a small H2 dataset and drives it for a minute.
+ */
+final class LoadTestOptions {
+
+    // Dataset
+    int users = 2_000;
+    int posts = 10_000;
+    int recipes = 3_000;
+    int groups = 200;
+    int membersPerGroup = 25;
+    int messagesPerGroup = 40;
+    int discussionsPerGroup = 10;
+    int commentsPerPost = 3;
+    int likesPerPost = 8;
+    int mediaFiles = 40;
+    int batchSize = 1_000;
+    long seed = 42;
+
+    // Database; H2 in memory unless a JDBC URL is given
+    String jdbcUrl;
+    String dbUser = "sa";
+    String dbPassword = "";
+
+    // Workload
+    int threads = 16;
+    int warmupSeconds = 15;
+    int durationSeconds = 60;
+    String out;
+    // default, or chat-upload for group chat and photo posts only
+    String mix = "default";
+    // Serve requests on virtual threads (spring.threads.virtual.enabled)
+    boolean virtualThreads;
+    // Run the workload twice, on platform and then on virtual threads, and compare them
+    boolean compareThreads;
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            } else if (i + 1 < args.length) {
+                values.put(arg.substring(2), args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+        }
+
+        LoadTestOptions options = new LoadTestOptions();
+        options.users = intValue(values.remove("users"), options.users);
+        options.posts = intValue(values.remove("posts"), options.posts);
+        options.recipes = intValue(values.remove("recipes"), options.recipes);
+        options.groups = intValue(values.remove("groups"), options.groups);
+        options.membersPerGroup = intValue(values.remove("members-per-group"), options.membersPerGroup);
+        options.messagesPerGroup = intValue(values.remove("messages-per-group"), options.messagesPerGroup);
+        options.discussionsPerGroup = intValue(values.remove("discussions-per-group"), options.discussionsPerGroup);
+        options.commentsPerPost = intValue(values.remove("comments-per-post"), options.commentsPerPost);
+        options.likesPerPost = intValue(values.remove("likes-per-post"), options.likesPerPost);
+        options.mediaFiles = intValue(values.remove("media-files"), options.mediaFiles);
+        options.batchSize = intValue(values.remove("batch-size"), options.batchSize);
+        options.seed = values.containsKey("seed") ? Long.parseLong(values.remove("seed")) : options.seed;
+        options.jdbcUrl = values.remove("jdbc-url");
+        options.dbUser = values.getOrDefault("db-user", options.dbUser);
+        options.dbPassword = values.getOrDefault("db-password", options.dbPassword);
+        values.remove("db-user");
+        values.remove("db-password");
+        options.threads = intValue(values.remove("threads"), options.threads);
+        options.warmupSeconds = intValue(values.remove("warmup"), options.warmupSeconds);
+        options.durationSeconds = intValue(values.remove("duration"), options.durationSeconds);
+        options.out = values.remove("out");
+        options.mix = values.getOrDefault("mix", options.mix);
+        values.remove("mix");
+        options.virtualThreads = Boolean.parseBoolean(values.remove("virtual-threads"));
+        options.compareThreads = Boolean.parseBoolean(values.remove("compare-threads"));
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.users < 2 || options.membersPerGroup >= options.users || options.likesPerPost >= options.users) {
+            throw new IllegalArgumentException("Need more users than members per group and likes per post");
+        }
+        if (options.compareThreads && options.jdbcUrl != null) {
+            throw new IllegalArgumentException("--compare-threads seeds a fresh H2 database per run; drop --jdbc-url");
+        }
+        return options;
+    }
+
+    private static int intValue(String value, int fallback) {
+        return value == null ? fallback : Integer.parseInt(value.replace("_", ""));
+    }
+}
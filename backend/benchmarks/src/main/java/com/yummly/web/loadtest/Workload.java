@@ -0,0 +1,206 @@
+package com.yummly.web.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.BiFunction;
+
+/**
+ * The workload: a weighted list of operations. The default mix is modelled on what the web client
+ * does, read heavy with a steady trickle of likes and logins; the chat-upload mix is group chat
+ * plus photo posts, the endpoints that spend their time blocked on JDBC and file I/O. Each worker
+ * is a closed loop (send, wait, repeat) as one signed-in user, so latencies are per request under
+ * the configured concurrency rather than at a fixed arrival rate.
+ */
+final class Workload {
+
+    private static final String[] SEARCH_TERMS = {"chicken", "curry", "Italian", "ramen", "soup", "Thai", "tart"};
+
+    // Distinct photos for the upload operation; the media store deduplicates repeats, which is fine
+    private static final int UPLOAD_IMAGES = 16;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Dataset dataset;
+    private final List<Operation> operations;
+    private final int totalWeight;
+    private byte[][] uploadImages;
+
+    Workload(HttpClient client, String baseUrl, Dataset dataset, String mix, long seed) throws IOException {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.operations = switch (mix) {
+            case "default" -> defaultMix();
+            case "chat-upload" -> chatUploadMix(seed);
+            default -> throw new IllegalArgumentException("Unknown workload mix: " + mix);
+        };
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+    }
+
+    private List<Operation> defaultMix() {
+        return List.of(
+                new Operation("feed", 20, (w, r) -> get("/api/posts/feed?limit=20&userId=" + w.userId)),
+                new Operation("feed.next", 8, (w, r) -> get("/api/posts/feed?limit=20&userId=" + w.userId
+                        + (w.feedCursor != null ? "&cursor=" + w.feedCursor : ""))),
+                new Operation("post.like", 5, (w, r) -> request("/api/posts/" + pick(dataset.postIds(), r)
+                        + "/likes?userId=" + w.userId, "PUT")),
+                new Operation("post.unlike", 3, (w, r) -> request("/api/posts/" + pick(dataset.postIds(), r)
+                        + "/likes?userId=" + w.userId, "DELETE")),
+                new Operation("post.comments", 6, (w, r) -> get("/api/posts/" + pick(dataset.postIds(), r) + "/comments")),
+                new Operation("profile", 8, (w, r) -> get("/api/profile/" + pick(dataset.userIds(), r))),
+                new Operation("recipe.get", 6, (w, r) -> get("/api/recipes/" + pick(dataset.recipeIds(), r))),
+                new Operation("recipe.search", 5, (w, r) -> get("/api/recipes/search?query="
+                        + encode(SEARCH_TERMS[r.nextInt(SEARCH_TERMS.length)]))),
+                new Operation("group.list", 2, (w, r) -> get("/api/groups")),
+                new Operation("group.search", 4, (w, r) -> get("/api/groups/search?query="
+                        + encode(SEARCH_TERMS[r.nextInt(SEARCH_TERMS.length)]))),
+                new Operation("group.messages", 5, (w, r) -> get("/api/groups/" + w.groupId + "/messages")),
+                new Operation("group.discussions", 4, (w, r) -> get("/api/groups/" + w.groupId + "/discussions")),
+                new Operation("media", 12, (w, r) -> get("/uploads/" + dataset.mediaFiles()[r.nextInt(dataset.mediaFiles().length)])),
+                new Operation("login", 3, (w, r) -> loginRequest(w.email)));
+    }
+
+    private List<Operation> chatUploadMix(long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        uploadImages = new byte[UPLOAD_IMAGES][];
+        for (int i = 0; i < uploadImages.length; i++) {
+            uploadImages[i] = DatasetGenerator.jpeg(random);
+        }
+        return List.of(
+                new Operation("group.messages", 45, (w, r) -> get("/api/groups/" + w.groupId + "/messages")),
+                new Operation("group.message.send", 35, (w, r) -> HttpRequest.newBuilder(
+                                URI.create(baseUrl + "/api/groups/" + w.groupId + "/messages"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"content\":\"Load test message " + r.nextInt(1_000_000) + "\"}"))),
+                new Operation("post.create", 20, this::createPostRequest));
+    }
+
+    List<Operation> operations() {
+        return operations;
+    }
+
+    Worker worker(int index, long seed) throws Exception {
+        SplittableRandom random = new SplittableRandom(seed + index);
+        int user = random.nextInt(dataset.userIds().length);
+        // Prefer a user with a group, so the group operations pass the membership check
+        for (int attempt = 0; attempt < 100 && dataset.userGroup()[user] < 0; attempt++) {
+            user = random.nextInt(dataset.userIds().length);
+        }
+        Worker worker = new Worker(random, dataset.userIds()[user], dataset.emails()[user],
+                dataset.userGroup()[user] >= 0 ? dataset.userGroup()[user] : dataset.groupIds()[0]);
+
+        HttpResponse<byte[]> login = client.send(loginRequest(worker.email).build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (login.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + worker.email + ": HTTP " + login.statusCode());
+        }
+        worker.token = mapper.readTree(login.body()).path("token").asText();
+        return worker;
+    }
+
+    // Runs one randomly chosen operation, recording its latency unless still warming up
+    void step(Worker worker, LatencyRecorder[] recorders, boolean record) {
+        int pick = worker.random.nextInt(totalWeight);
+        int index = 0;
+        while (pick >= operations.get(index).weight()) {
+            pick -= operations.get(index).weight();
+            index++;
+        }
+        Operation operation = operations.get(index);
+        HttpRequest request = operation.request().apply(worker, worker.random)
+                .header("Authorization", "Bearer " + worker.token)
+                .build();
+
+        long started = System.nanoTime();
+        boolean failed;
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            failed = response.statusCode() >= 400;
+            if (!failed && operation.name().startsWith("feed")) {
+                JsonNode cursor = mapper.readTree(response.body()).path("nextCursor");
+                worker.feedCursor = cursor.isTextual() ? cursor.asText() : null;
+            }
+        } catch (Exception e) {
+            failed = true;
+        }
+        if (record) {
+            recorders[index].record(System.nanoTime() - started, failed);
+        }
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder request(String path, String method) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).method(method, HttpRequest.BodyPublishers.noBody());
+    }
+
+    // Multipart photo post, the same request the web client sends from the create-post form
+    private HttpRequest.Builder createPostRequest(Worker worker, SplittableRandom random) {
+        String boundary = "loadtest" + Long.toHexString(random.nextLong());
+        byte[] image = uploadImages[random.nextInt(uploadImages.length)];
+        ByteArrayOutputStream body = new ByteArrayOutputStream(image.length + 1024);
+        formField(body, boundary, "title", "Load test post");
+        formField(body, boundary, "description", "Uploaded by the load test");
+        formField(body, boundary, "userId", String.valueOf(worker.userId));
+        body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"image\"; filename=\"upload.jpg\""
+                + "\r\nContent-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(image);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/posts/create"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+    }
+
+    private static void formField(ByteArrayOutputStream body, String boundary, String name, String value) {
+        body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private HttpRequest.Builder loginRequest(String email) {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + Dataset.PASSWORD + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private static long pick(long[] ids, SplittableRandom random) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    record Operation(String name, int weight, BiFunction<Worker, SplittableRandom, HttpRequest.Builder> request) {
+    }
+
+    static final class Worker {
+        final SplittableRandom random;
+        final long userId;
+        final String email;
+        final long groupId;
+        String token;
+        String feedCursor;
+
+        Worker(SplittableRandom random, long userId, String email, long groupId) {
+            this.random = random;
+            this.userId = userId;
+            this.email = email;
+            this.groupId = groupId;
+        }
+    }
+}
@@ -6,4 +6,33 @@ USE yummly_db;
 
 -- Grant privileges to the root user (if needed)
 GRANT ALL PRIVILEGES ON yummly_db.* TO 'root'@'localhost';
-FLUSH PRIVILEGES; 
\ No newline at end of file
+FLUSH PRIVILEGES; 
+
+-- Databases created before emails were unique: remove duplicate accounts, then
+-- ALTER TABLE user ADD UNIQUE INDEX ux_user_email (email);
+
+-- Comments, group memberships, messages, discussions, discussion comments and recipe comments take
+-- their ids from pooled generators, 50 at a time, so Hibernate can batch their inserts. MySQL has no
+-- sequences, so each generator is a one-row table holding the next value to hand out. On a database
+-- created before that change, run this once before starting the new version so new ids start past
+-- the existing rows. Also add rewriteBatchedStatements=true to the JDBC URL so batches are sent as
+-- multi-row INSERTs.
+CREATE TABLE IF NOT EXISTS comment_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS group_memberships_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS group_messages_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS group_discussions_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS group_comments_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS recipe_comment_seq (next_val BIGINT);
+DELETE FROM comment_seq;
+DELETE FROM group_memberships_seq;
+DELETE FROM group_messages_seq;
+DELETE FROM group_discussions_seq;
+DELETE FROM group_comments_seq;
+DELETE FROM recipe_comment_seq;
+-- The pooled optimizer hands out (next_val - 49) .. next_val, hence MAX(id) + 50
+INSERT INTO comment_seq SELECT COALESCE(MAX(id), 0) + 50 FROM comment;
+INSERT INTO group_memberships_seq SELECT COALESCE(MAX(id), 0) + 50 FROM group_memberships;
+INSERT INTO group_messages_seq SELECT COALESCE(MAX(id), 0) + 50 FROM group_messages;
+INSERT INTO group_discussions_seq SELECT COALESCE(MAX(id), 0) + 50 FROM group_discussions;
+INSERT INTO group_comments_seq SELECT COALESCE(MAX(id), 0) + 50 FROM group_comments;
+INSERT INTO recipe_comment_seq SELECT COALESCE(MAX(id), 0) + 50 FROM recipe_comment;
@@ -0,0 +1,49 @@
+package com.yummly.web.config;
+
+import java.util.List;
+
+/**
+ * The caller as described by a verified token. Set as a request attribute by
+ * {@link TokenAuthenticationFilter}; controllers take it with
+ * {@code @RequestAttribute(name = AuthPrincipal.ATTRIBUTE, required = false)}.
+ *
+ * <p>Group roles are as of login. They are fine for display, but permission checks still go
+ * through {@code GroupService}, since a role can be revoked before the token expires.
+ */
+public final class AuthPrincipal {
+
+    // A literal, so it can be used in @RequestAttribute
+    public static final String ATTRIBUTE = "com.yummly.web.config.AuthPrincipal";
+
+    private final long userId;
+    private final String name;
+    private final List<Long> adminGroupIds;
+    private final List<Long> moderatorGroupIds;
+
+    public AuthPrincipal(long userId, String name, List<Long> adminGroupIds, List<Long> moderatorGroupIds) {
+        this.userId = userId;
+        this.name = name;
+        this.adminGroupIds = List.copyOf(adminGroupIds);
+        this.moderatorGroupIds = List.copyOf(moderatorGroupIds);
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Long> getAdminGroupIds() {
+        return adminGroupIds;
+    }
+
+    public List<Long> getModeratorGroupIds() {
+        return moderatorGroupIds;
+    }
+
+    public boolean isUser(Long id) {
+        return id != null && id == userId;
+    }
+}
@@ -0,0 +1,72 @@
+package com.yummly.web.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Metrics for the Prometheus endpoint at /actuator/prometheus. Request timers come from Spring's
+ * {@code http.server.requests}; this adds histogram buckets to them and to Hikari's connection
+ * timers, and counts SQL statements per endpoint, warning about requests that look like N+1 loops.
+ * Defaults live in observability.properties and can be overridden like any other property.
+ */
+@Configuration
+@PropertySource("classpath:observability.properties")
+public class ObservabilityConfig implements WebMvcConfigurer {
+
+    // Timers that get percentile histograms, so p95/p99 can be aggregated across instances
+    private static final Set<String> HISTOGRAM_TIMERS = Set.of(
+            "http.server.requests",
+            "hikaricp.connections.acquire",
+            "hikaricp.connections.usage");
+
+    // Looked up lazily: the registry's post-processor needs latencyHistograms() from this class first
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    // Requests issuing more statements than this are logged with the offending call sites
+    @Value("${queries.guard.warn-threshold:25}")
+    private int queryWarnThreshold;
+
+    @Bean
+    public static MeterFilter latencyHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!HISTOGRAM_TIMERS.contains(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                        .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryMetricsInterceptor(meterRegistry.getObject(), queryWarnThreshold));
+    }
+}
@@ -0,0 +1,96 @@
+package com.yummly.web.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #begin} and
+ * {@link #end}. Outside that window statements pass through uncounted, so scheduled jobs and
+ * background threads cost nothing but a ThreadLocal read.
+ *
+ * <p>Once a window has seen more statements than its capture threshold, each further statement
+ * is attributed to the innermost application frame that issued it (the service or controller line
+ * calling the repository or touching a lazy association), which is what points at an N+1 loop.
+ * Windows nest: an inner begin/end pair, such as a request inside a test, shares the outer count.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<Tally> TALLY = new ThreadLocal<>();
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private static final String APP_PACKAGE = "com.yummly.web.";
+    private static final String OWN_PACKAGE = "com.yummly.web.config.";
+    private static final int SQL_SAMPLE_LENGTH = 120;
+
+    public static void begin(int captureSitesAfter) {
+        Tally tally = TALLY.get();
+        if (tally == null) {
+            TALLY.set(new Tally(captureSitesAfter));
+        } else {
+            tally.depth++;
+            tally.captureAfter = Math.min(tally.captureAfter, captureSitesAfter);
+        }
+    }
+
+    // Statements since the outermost begin(), or -1 if counting wasn't started on this thread
+    public static int current() {
+        Tally tally = TALLY.get();
+        return tally == null ? -1 : tally.count;
+    }
+
+    // Call sites seen past the capture threshold, with how many statements each issued
+    public static Map<String, Integer> sites() {
+        Tally tally = TALLY.get();
+        return tally == null ? Map.of() : new LinkedHashMap<>(tally.sites);
+    }
+
+    public static int end() {
+        Tally tally = TALLY.get();
+        if (tally == null) {
+            return -1;
+        }
+        if (--tally.depth == 0) {
+            TALLY.remove();
+        }
+        return tally.count;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Tally tally = TALLY.get();
+        if (tally != null && ++tally.count > tally.captureAfter) {
+            tally.sites.merge(callSite() + " [" + sample(sql) + "]", 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    private static String callSite() {
+        return WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE)
+                        && !frame.getClassName().startsWith(OWN_PACKAGE)
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    private static String sample(String sql) {
+        String flat = sql.replaceAll("\\s+", " ").trim();
+        return flat.length() > SQL_SAMPLE_LENGTH ? flat.substring(0, SQL_SAMPLE_LENGTH) + "..." : flat;
+    }
+
+    private static final class Tally {
+        int depth = 1;
+        int count;
+        int captureAfter;
+        final Map<String, Integer> sites = new LinkedHashMap<>();
+
+        Tally(int captureAfter) {
+            this.captureAfter = captureAfter;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.yummly.web.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Records how many SQL statements each controller call issued, as the
+ * {@code http.server.requests.db.statements} summary tagged like {@code http.server.requests}.
+ * A request over {@code queries.guard.warn-threshold} is logged with the call sites that issued
+ * the statements past the threshold. Statements run after an async handoff (streaming responses)
+ * are not counted.
+ */
+public class QueryMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryMetricsInterceptor.class);
+
+    private static final double[] STATEMENT_BUCKETS = {1, 2, 3, 5, 10, 20, 50, 100};
+
+    private static final String START_COUNT = QueryMetricsInterceptor.class.getName() + ".start";
+
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public QueryMetricsInterceptor(MeterRegistry meterRegistry, int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            QueryCountInspector.begin(warnThreshold);
+            request.setAttribute(START_COUNT, QueryCountInspector.current());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(START_COUNT) != null) {
+            QueryCountInspector.end();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_COUNT);
+        if (start == null) {
+            return;
+        }
+        int statements = QueryCountInspector.current() - (Integer) start;
+        Map<String, Integer> sites = statements > warnThreshold ? QueryCountInspector.sites() : Map.of();
+        QueryCountInspector.end();
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.server.requests.db.statements")
+                .description("SQL statements issued per request")
+                .baseUnit("statements")
+                .tags("method", request.getMethod(), "uri", uri)
+                .serviceLevelObjectives(STATEMENT_BUCKETS)
+                .register(meterRegistry)
+                .record(statements);
+
+        if (statements > warnThreshold) {
+            logger.warn("{} {} issued {} SQL statements (threshold {}); statements past the threshold came from:\n{}",
+                    request.getMethod(), uri, statements, warnThreshold, describe(sites));
+        }
+    }
+
+    private static String describe(Map<String, Integer> sites) {
+        return sites.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .map(site -> "  " + site.getValue() + "x " + site.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -1,44 +1,261 @@
 package com.yummly.web.config;
 
-import jakarta.servlet.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.stream.Collectors;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Structured access log, one line per request on the {@code access} logger. Request threads only
+ * fill in a record taken from a preallocated pool and hand it to a lock-free queue; a background
+ * thread formats and writes it. Successful fast requests are sampled at {@code access-log.sample-rate};
+ * errors and requests slower than {@code access-log.slow-ms} are always written.
+ *
+ * <p>When the pool is empty the request is not logged and counted as dropped instead, so a slow
+ * log appender can never hold up request threads.
+ */
 @Component
-public class RequestLoggingFilter implements Filter {
+@Order(Ordered.HIGHEST_PRECEDENCE + 50)
+public class RequestLoggingFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(RequestLoggingFilter.class);
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long slowNanos;
+    private final List<String> excludedPaths;
+    private final long idleParkNanos;
+    private final int bufferSize;
+
+    private final ConcurrentLinkedQueue<AccessRecord> free = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<AccessRecord> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public RequestLoggingFilter(
+            @Value("${access-log.enabled:true}") boolean enabled,
+            @Value("${access-log.sample-rate:1.0}") double sampleRate,
+            @Value("${access-log.slow-ms:1000}") long slowMillis,
+            @Value("${access-log.exclude:/actuator/**}") List<String> excludedPaths,
+            @Value("${access-log.buffer-size:8192}") int bufferSize,
+            @Value("${access-log.idle-park-ms:20}") long idleParkMillis) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+        this.excludedPaths = excludedPaths;
+        this.bufferSize = bufferSize;
+        this.idleParkNanos = TimeUnit.MILLISECONDS.toNanos(idleParkMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < bufferSize; i++) {
+            free.offer(new AccessRecord());
+        }
+        running = true;
+        writer = new Thread(this::drain, "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return excludedPaths.stream().anyMatch(pattern -> PATHS.match(pattern.trim(), path));
+    }
 
     @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
-            throws IOException, ServletException {
-        
-        HttpServletRequest req = (HttpServletRequest) request;
-        HttpServletResponse res = (HttpServletResponse) response;
-        
-        // Log request details
-        logger.info(
-            "Request: {} {} (ContentType: {}, Headers: {})",
-            req.getMethod(),
-            req.getRequestURI(),
-            req.getContentType(),
-            Collections.list(req.getHeaderNames())
-                .stream()
-                .map(name -> name + "=" + req.getHeader(name))
-                .collect(Collectors.joining(", "))
-        );
-        
-        // Continue processing
-        chain.doFilter(request, response);
-        
-        // Log response status
-        logger.info("Response Status: {}", res.getStatus());
-    }
-} 
\ No newline at end of file
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AccessRecord record = free.poll();
+        if (record == null) {
+            dropped.incrementAndGet();
+            chain.doFilter(request, response);
+            return;
+        }
+        record.begin(request);
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streaming responses finish later; the listener completes the record then
+                async = true;
+                request.getAsyncContext().addListener(new CompletionListener(record, request, response));
+            }
+        } finally {
+            if (!async) {
+                complete(record, request, response);
+            }
+        }
+    }
+
+    private void complete(AccessRecord record, HttpServletRequest request, HttpServletResponse response) {
+        record.end(request, response);
+        boolean keep = record.status >= 400
+                || record.durationNanos >= slowNanos
+                || sampleRate >= 1.0
+                || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (keep) {
+            pending.offer(record);
+        } else {
+            record.reset();
+            free.offer(record);
+        }
+    }
+
+    private void drain() {
+        StringBuilder line = new StringBuilder(256);
+        while (running || !pending.isEmpty()) {
+            AccessRecord record = pending.poll();
+            if (record == null) {
+                long lost = dropped.getAndSet(0);
+                if (lost > 0) {
+                    logger.warn("Access log dropped {} requests: record pool exhausted", lost);
+                }
+                LockSupport.parkNanos(idleParkNanos);
+                continue;
+            }
+            try {
+                line.setLength(0);
+                record.format(line);
+                accessLog.info(line.toString());
+            } catch (RuntimeException e) {
+                logger.error("Error writing access log: {}", e.getMessage(), e);
+            } finally {
+                record.reset();
+                free.offer(record);
+            }
+        }
+    }
+
+    private final class CompletionListener implements AsyncListener {
+
+        private final AccessRecord record;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+
+        CompletionListener(AccessRecord record, HttpServletRequest request, HttpServletResponse response) {
+            this.record = record;
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            complete(record, request, response);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register so a restarted async cycle still completes the record
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    // Mutable and reused; only references are taken on the request thread, formatting happens in the writer
+    private static final class AccessRecord {
+        long startMillis;
+        long startNanos;
+        long durationNanos;
+        String method;
+        String path;
+        String remoteAddr;
+        String user;
+        long bytesIn;
+        String bytesOut;
+        int status;
+
+        void begin(HttpServletRequest request) {
+            startMillis = System.currentTimeMillis();
+            startNanos = System.nanoTime();
+            method = request.getMethod();
+            path = request.getRequestURI();
+            remoteAddr = request.getRemoteAddr();
+            bytesIn = request.getContentLengthLong();
+        }
+
+        void end(HttpServletRequest request, HttpServletResponse response) {
+            durationNanos = System.nanoTime() - startNanos;
+            status = response.getStatus();
+            bytesOut = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+            Object principal = request.getAttribute(AuthPrincipal.ATTRIBUTE);
+            user = principal instanceof AuthPrincipal authenticated
+                    ? String.valueOf(authenticated.getUserId())
+                    : request.getHeader("userid");
+        }
+
+        void format(StringBuilder line) {
+            line.append("ts=").append(Instant.ofEpochMilli(startMillis))
+                    .append(" method=").append(method)
+                    .append(" path=").append(path)
+                    .append(" status=").append(status)
+                    .append(" duration_ms=").append(durationNanos / 1_000_000).append('.')
+                    .append(String.format("%03d", (durationNanos / 1_000) % 1_000))
+                    .append(" bytes_in=").append(bytesIn >= 0 ? String.valueOf(bytesIn) : "-")
+                    .append(" bytes_out=").append(bytesOut != null ? bytesOut : "-")
+                    .append(" user=").append(user != null ? user : "-")
+                    .append(" remote=").append(remoteAddr);
+        }
+
+        void reset() {
+            method = null;
+            path = null;
+            remoteAddr = null;
+            user = null;
+            bytesOut = null;
+            status = 0;
+            durationNanos = 0;
+        }
+    }
+}
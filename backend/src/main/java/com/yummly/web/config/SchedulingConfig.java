@@ -0,0 +1,27 @@
+package com.yummly.web.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    // More than one thread, so slow jobs like media reclamation don't hold up the like counter flush.
+    // Follows the virtual-thread mode that spring.threads.virtual.enabled sets for Tomcat and @Async
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${scheduling.pool-size:4}") int poolSize,
+                                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduled-");
+        if (virtualThreads) {
+            // ThreadPoolTaskScheduler has no virtual-thread switch before Spring 6.2; a factory does the same
+            scheduler.setThreadFactory(Thread.ofVirtual().name("scheduled-", 1).factory());
+        }
+        return scheduler;
+    }
+}
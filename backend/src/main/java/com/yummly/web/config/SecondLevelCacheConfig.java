@@ -0,0 +1,64 @@
+package com.yummly.web.config;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+
+/**
+ * Hibernate second-level cache for the read-mostly entities (users, groups, recipes) and for the
+ * repository queries marked cacheable, kept in-process by Ehcache through JCache. Every region is
+ * declared with its size and TTL in ehcache.xml; a region missing there fails startup rather than
+ * getting an unbounded default.
+ *
+ * <p>Writes through JPA update or evict the cached entries when their transaction commits, and any
+ * write to a table invalidates the cached queries that read it. Native statements must name the
+ * tables they write (see LikeRepository), or Hibernate has to clear every region. Per-region hits,
+ * misses and puts are published as the {@code hibernate.second.level.cache.*} meters.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final String EHCACHE_PROVIDER = "org.ehcache.jsr107.EhcacheCachingProvider";
+
+    @Value("${cache.second-level.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.second-level.config:classpath:ehcache.xml}")
+    private Resource config;
+
+    // Feeds the Hibernate meters; per-session metric logging stays off
+    @Value("${cache.second-level.statistics:true}")
+    private boolean statistics;
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, statistics);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+            // Set explicitly: with hibernate-jcache on the classpath Hibernate would otherwise enable a default cache
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            if (!enabled) {
+                return;
+            }
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.PROVIDER, EHCACHE_PROVIDER);
+            properties.put(ConfigSettings.CONFIG_URI, configUrl());
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private String configUrl() {
+        try {
+            return config.getURL().toExternalForm();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read cache configuration " + config, e);
+        }
+    }
+}
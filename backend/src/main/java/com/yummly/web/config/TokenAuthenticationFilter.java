@@ -0,0 +1,155 @@
+package com.yummly.web.config;
+
+import com.yummly.web.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Verifies the Bearer token on API requests and exposes the caller as an {@link AuthPrincipal}
+ * request attribute. The request is also wrapped so the {@code userid} header and {@code userId}
+ * parameter the controllers already read are the token's subject, whatever the client sent.
+ *
+ * <p>Requests without a token pass through unchanged unless {@code auth.require-token} is set,
+ * which lets clients move over before the raw header stops being trusted. Until then an invalid or
+ * expired token is treated the same as no token. Login and signup are never filtered, so a stale
+ * token a client still sends cannot lock it out of getting a new one.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+    private static final String USER_HEADER = "userid";
+    private static final String USER_PARAM = "userId";
+    private static final Set<String> PUBLIC_PATHS = Set.of("/api/v1/login", "/api/v1/adduser");
+
+    private final TokenService tokenService;
+    private final boolean requireToken;
+
+    public TokenAuthenticationFilter(TokenService tokenService,
+                                     @Value("${auth.require-token:false}") boolean requireToken) {
+        this.tokenService = tokenService;
+        this.requireToken = requireToken;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/api/") || PUBLIC_PATHS.contains(path) || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER)) {
+            if (requireToken && claimsIdentity(request)) {
+                unauthorized(response, "Authentication required");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Optional<AuthPrincipal> principal = tokenService.verify(authorization.substring(BEARER.length()).trim());
+        if (principal.isEmpty()) {
+            if (requireToken) {
+                unauthorized(response, "Invalid or expired token");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+        request.setAttribute(AuthPrincipal.ATTRIBUTE, principal.get());
+        chain.doFilter(new AuthenticatedRequest(request, principal.get()), response);
+    }
+
+    // Only the query string is checked, so a multipart body isn't parsed here
+    private boolean claimsIdentity(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return request.getHeader(USER_HEADER) != null
+                || (query != null && (query.startsWith(USER_PARAM + "=") || query.contains("&" + USER_PARAM + "=")));
+    }
+
+    private void unauthorized(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+
+    private static final class AuthenticatedRequest extends HttpServletRequestWrapper {
+
+        private final String userId;
+
+        AuthenticatedRequest(HttpServletRequest request, AuthPrincipal principal) {
+            super(request);
+            this.userId = String.valueOf(principal.getUserId());
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return USER_HEADER.equalsIgnoreCase(name) ? userId : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return USER_HEADER.equalsIgnoreCase(name)
+                    ? Collections.enumeration(Collections.singletonList(userId))
+                    : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            Enumeration<String> names = super.getHeaderNames();
+            if (super.getHeader(USER_HEADER) != null) {
+                return names;
+            }
+            List<String> all = Collections.list(names);
+            all.add(USER_HEADER);
+            return Collections.enumeration(all);
+        }
+
+        @Override
+        public String getParameter(String name) {
+            return USER_PARAM.equals(name) && super.getParameter(name) != null ? userId : super.getParameter(name);
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            return USER_PARAM.equals(name) && super.getParameter(name) != null
+                    ? new String[] {userId}
+                    : super.getParameterValues(name);
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            Map<String, String[]> parameters = super.getParameterMap();
+            if (!parameters.containsKey(USER_PARAM)) {
+                return parameters;
+            }
+            Map<String, String[]> replaced = new LinkedHashMap<>(parameters);
+            replaced.put(USER_PARAM, new String[] {userId});
+            return Collections.unmodifiableMap(replaced);
+        }
+    }
+}
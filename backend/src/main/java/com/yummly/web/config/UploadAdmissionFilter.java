@@ -0,0 +1,179 @@
+package com.yummly.web.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control for media uploads. An upload needs a per-user slot, a global slot and room in
+ * the bytes-in-flight budget (sized from Content-Length) before it reaches the controller. Global
+ * slots and budget are waited on briefly; if they don't free up in time the request gets 429 with
+ * Retry-After, so an upload storm can't take every request thread and the JSON API stays responsive.
+ */
+@Component
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadAdmissionFilter.class);
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    private static final List<String> POST_UPLOADS = List.of("/api/posts/create");
+    private static final List<String> PUT_UPLOADS = List.of("/api/posts/*", "/api/posts/*/media", "/api/uploads/*");
+
+    private final int maxPerUser;
+    private final long queueTimeoutMillis;
+    private final long unknownLengthBytes;
+    private final int retryAfterSeconds;
+
+    private final Semaphore globalSlots;
+    private final ConcurrentHashMap<String, Integer> activeByUser = new ConcurrentHashMap<>();
+
+    private final long maxBytesInFlight;
+    private long bytesInFlight;
+    private final ReentrantLock bytesLock = new ReentrantLock();
+    private final Condition bytesReleased = bytesLock.newCondition();
+
+    public UploadAdmissionFilter(
+            @Value("${uploads.admission.max-concurrent:8}") int maxConcurrent,
+            @Value("${uploads.admission.max-per-user:2}") int maxPerUser,
+            @Value("${uploads.admission.max-bytes-in-flight:1073741824}") long maxBytesInFlight,
+            @Value("${uploads.admission.queue-timeout-ms:2000}") long queueTimeoutMillis,
+            @Value("${uploads.admission.unknown-length-bytes:67108864}") long unknownLengthBytes,
+            @Value("${uploads.admission.retry-after-seconds:5}") int retryAfterSeconds) {
+        this.globalSlots = new Semaphore(maxConcurrent, true);
+        this.maxPerUser = maxPerUser;
+        this.maxBytesInFlight = maxBytesInFlight;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.unknownLengthBytes = unknownLengthBytes;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        List<String> patterns = switch (request.getMethod()) {
+            case "POST" -> POST_UPLOADS;
+            case "PUT" -> PUT_UPLOADS;
+            default -> List.of();
+        };
+        return patterns.stream().noneMatch(pattern -> PATHS.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String user = uploaderKey(request);
+        long length = request.getContentLengthLong();
+        long bytes = length >= 0 ? length : unknownLengthBytes;
+
+        if (!acquireUserSlot(user)) {
+            reject(response, "Too many uploads in progress for this user");
+            return;
+        }
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+            if (!globalSlots.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                reject(response, "Upload capacity exhausted, try again shortly");
+                return;
+            }
+            try {
+                if (!acquireBytes(bytes, deadline)) {
+                    reject(response, "Upload capacity exhausted, try again shortly");
+                    return;
+                }
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    releaseBytes(bytes);
+                }
+            } finally {
+                globalSlots.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, "Upload interrupted while waiting for capacity");
+        } finally {
+            releaseUserSlot(user);
+        }
+    }
+
+    // The userid header the group endpoints use, else a userId query parameter, else the client address.
+    // Form fields are deliberately not read: that would parse the whole multipart body before admission.
+    private String uploaderKey(HttpServletRequest request) {
+        String userId = request.getHeader("userid");
+        if (userId == null && request.getQueryString() != null) {
+            userId = UriComponentsBuilder.newInstance().query(request.getQueryString()).build()
+                    .getQueryParams().getFirst("userId");
+        }
+        return userId != null && !userId.isBlank() ? "user:" + userId.trim() : "addr:" + request.getRemoteAddr();
+    }
+
+    private boolean acquireUserSlot(String user) {
+        boolean[] admitted = new boolean[1];
+        activeByUser.compute(user, (key, active) -> {
+            int current = active == null ? 0 : active;
+            admitted[0] = current < maxPerUser;
+            return admitted[0] ? current + 1 : active;
+        });
+        return admitted[0];
+    }
+
+    private void releaseUserSlot(String user) {
+        activeByUser.computeIfPresent(user, (key, active) -> active <= 1 ? null : active - 1);
+    }
+
+    // Wait until the upload fits in the budget; one larger than the whole budget runs only on its own
+    private boolean acquireBytes(long bytes, long deadline) throws InterruptedException {
+        bytesLock.lock();
+        try {
+            while (bytesInFlight > 0 && bytesInFlight + bytes > maxBytesInFlight) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                bytesReleased.awaitNanos(remaining);
+            }
+            bytesInFlight += bytes;
+            return true;
+        } finally {
+            bytesLock.unlock();
+        }
+    }
+
+    private void releaseBytes(long bytes) {
+        bytesLock.lock();
+        try {
+            bytesInFlight -= bytes;
+            bytesReleased.signalAll();
+        } finally {
+            bytesLock.unlock();
+        }
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        logger.warn("Rejected upload: {}", message);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
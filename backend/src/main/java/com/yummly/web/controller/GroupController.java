@@ -2,7 +2,9 @@ package com.yummly.web.controller;
 
 import com.yummly.web.dto.GroupDTO;
 import com.yummly.web.dto.GroupMessageDTO;
+import com.yummly.web.dto.GroupSearchHitDTO;
 import com.yummly.web.model.User;
+import com.yummly.web.service.GroupDiscussionService;
 import com.yummly.web.service.GroupMessageService;
 import com.yummly.web.service.GroupService;
 import org.slf4j.Logger;
@@ -28,6 +30,9 @@ public class GroupController {
     @Autowired
     private GroupMessageService messageService;
     
+    @Autowired
+    private GroupDiscussionService discussionService;
+    
     // Get all groups
     @GetMapping
     public ResponseEntity<List<GroupDTO>> getAllGroups() {
@@ -238,6 +243,20 @@ public class GroupController {
         }
     }
     
+    // Search discussions, comments and messages in all of the user's groups
+    @GetMapping("/search/content")
+    public ResponseEntity<List<GroupSearchHitDTO>> searchGroupContent(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader(value = "userid", defaultValue = "1") Long userId) {
+        try {
+            return ResponseEntity.ok(discussionService.searchGroupContent(query, userId, Math.min(limit, 200)));
+        } catch (Exception e) {
+            logger.error("Error in searchGroupContent: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     // Get groups by member
     @GetMapping("/member/{userId}")
     public ResponseEntity<List<GroupDTO>> getGroupsByMember(
@@ -332,6 +351,30 @@ public class GroupController {
         }
     }
     
+    // Add many members at once (admin only); body is {"userIds": [...]}
+    @PostMapping("/{groupId}/members/bulk")
+    public ResponseEntity<Map<String, Integer>> addMembers(
+            @PathVariable Long groupId,
+            @RequestBody Map<String, List<Long>> request,
+            @RequestHeader(value = "userid", defaultValue = "1") Long adminId) {
+        
+        try {
+            List<Long> userIds = request.get("userIds");
+            if (userIds == null || userIds.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            
+            int added = groupService.addMembers(groupId, adminId, userIds);
+            return ResponseEntity.ok(Map.of("added", added));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected bulk member add for group {}: {}", groupId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            logger.error("Error in addMembers: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+    
     // Get messages for a group
     @GetMapping("/{groupId}/messages")
     public ResponseEntity<List<GroupMessageDTO>> getGroupMessages(
@@ -376,6 +419,29 @@ public class GroupController {
         }
     }
     
+    // Import messages (admin only); body is a list of {userId, content, createdAt}
+    @PostMapping("/{groupId}/messages/bulk")
+    public ResponseEntity<Map<String, Integer>> importMessages(
+            @PathVariable Long groupId,
+            @RequestBody List<GroupMessageDTO> messages,
+            @RequestHeader(value = "userid", defaultValue = "1") Long adminId) {
+        
+        try {
+            if (messages.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            
+            int imported = messageService.importMessages(groupId, adminId, messages);
+            return ResponseEntity.ok(Map.of("imported", imported));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected message import for group {}: {}", groupId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            logger.error("Error in importMessages: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+    
     // Delete a message
     @DeleteMapping("/{groupId}/messages/{messageId}")
     public ResponseEntity<Void> deleteMessage(
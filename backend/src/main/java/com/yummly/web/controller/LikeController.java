@@ -1,5 +1,6 @@
 package com.yummly.web.controller;
 
+import com.yummly.web.dto.LikeStateDTO;
 import com.yummly.web.model.Like;
 import com.yummly.web.service.LikeService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,14 +19,26 @@ public class LikeController {
     // Toggle like/unlike
     @PostMapping
     public ResponseEntity<?> toggleLike(@PathVariable Long postId, @RequestParam Long userId) {
-        Like like = likeService.toggleLike(postId, userId);
-        if (like != null) {
+        boolean liked = likeService.toggleLike(postId, userId);
+        if (liked) {
             return ResponseEntity.ok("Liked");
         } else {
             return ResponseEntity.ok("Unliked");
         }
     }
 
+    // Like the post; repeating the request has no further effect
+    @PutMapping
+    public ResponseEntity<LikeStateDTO> like(@PathVariable Long postId, @RequestParam Long userId) {
+        return ResponseEntity.ok(likeService.like(postId, userId));
+    }
+
+    // Remove the like; repeating the request has no further effect
+    @DeleteMapping
+    public ResponseEntity<LikeStateDTO> unlike(@PathVariable Long postId, @RequestParam Long userId) {
+        return ResponseEntity.ok(likeService.unlike(postId, userId));
+    }
+
     // Check if user liked this post
     @GetMapping("/check")
     public ResponseEntity<Boolean> hasUserLiked(@PathVariable Long postId, @RequestParam Long userId) {
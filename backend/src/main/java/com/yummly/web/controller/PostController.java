@@ -1,13 +1,17 @@
 package com.yummly.web.controller;
 
+import com.yummly.web.dto.FeedPageDTO;
 import com.yummly.web.dto.PostDTO;
 import com.yummly.web.model.Post;
 import com.yummly.web.service.PostService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -34,6 +38,33 @@ public class PostController {
         return ResponseEntity.ok(createdPost);  // Return the created post if everything is fine
     }
 
+    // Paged home feed, newest first; pass nextCursor from the previous page to continue.
+    // userId is the viewer, used to fill in likedByViewer
+    @GetMapping("/feed")
+    public ResponseEntity<FeedPageDTO> getFeed(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "userId", required = false) Long userId
+    ) {
+        int pageSize = Math.max(1, Math.min(limit, 50));
+        return ResponseEntity.ok(postService.getFeed(cursor, pageSize, userId));
+    }
+
+    // Posts with like/comment counts for a list of ids, e.g. to refresh cards already on screen
+    @PostMapping("/batch")
+    public ResponseEntity<List<PostDTO>> getPostsBatch(
+            @RequestBody List<Long> ids,
+            @RequestParam(value = "userId", required = false) Long userId
+    ) {
+        if (ids.size() > 200) {
+            return ResponseEntity.badRequest().body(null);
+        }
+        if (ids.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok(postService.getPostsByIds(ids, userId));
+    }
+
     @GetMapping("/")
     public ResponseEntity<List<PostDTO>> getAllPosts() {
         try {
@@ -68,31 +99,23 @@ public class PostController {
             @RequestParam(value = "image", required = false) MultipartFile image,
             @RequestParam(value = "video", required = false) MultipartFile video
     ) {
-        Post postToUpdate = postService.getPostById(id);
-
-        if (postToUpdate == null) {
-            return ResponseEntity.status(404).body(null);  // Return 404 if the post doesn't exist
-        }
-
-        // Updating the post's details
-        postToUpdate.setTitle(title);
-        postToUpdate.setDescription(description);
+        Post updatedPost = postService.updatePost(id, title, description, image, video);
 
-        // Handle file updates (optional)
-        if (image != null && !image.isEmpty()) {
-            String imagePath = postService.saveMediaFile(image);  // A new helper method in service
-            postToUpdate.setImagePath(imagePath); // ✅ Save the path
-        }
+        return ResponseEntity.ok(updatedPost);  // Return the updated post
+    }
 
-        if (video != null && !video.isEmpty()) {
-            String videoPath = postService.saveMediaFile(video);
-            postToUpdate.setVideoPath(videoPath);
+    // Stream an image or video as the raw request body (Content-Type image/* or video/*),
+    // written straight to disk instead of being buffered as a multipart part first
+    @PutMapping("/{id}/media")
+    public ResponseEntity<PostDTO> uploadMedia(
+            @PathVariable Long id,
+            @RequestHeader(value = "X-File-Name", required = false) String fileName,
+            HttpServletRequest request
+    ) throws IOException {
+        try (InputStream body = request.getInputStream()) {
+            Post post = postService.attachMedia(id, request.getContentType(), request.getContentLengthLong(), fileName, body);
+            return ResponseEntity.ok(new PostDTO(post));
         }
-
-        // Call the service to save the updated post
-        Post updatedPost = postService.updatePost(postToUpdate);
-
-        return ResponseEntity.ok(updatedPost);  // Return the updated post
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,21 @@
+package com.yummly.web.controller;
+
+import com.yummly.web.dto.ProfileSummaryDTO;
+import com.yummly.web.service.ProfileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/profile")
+public class ProfileController {
+
+    @Autowired
+    private ProfileService profileService;
+
+    // Counts and latest posts/recipes/groups for a profile page in one request
+    @GetMapping("/{userId}")
+    public ResponseEntity<ProfileSummaryDTO> getProfileSummary(@PathVariable Long userId) {
+        return ResponseEntity.ok(profileService.getSummary(userId));
+    }
+}
@@ -0,0 +1,62 @@
+package com.yummly.web.controller;
+
+import com.yummly.web.dto.PostDTO;
+import com.yummly.web.dto.UploadSessionDTO;
+import com.yummly.web.model.Post;
+import com.yummly.web.service.ChunkedUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Resumable chunked uploads: start a session, PUT each chunk at its offset, then complete it
+@RestController
+@RequestMapping("/api/uploads")
+public class UploadController {
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @PostMapping
+    public ResponseEntity<UploadSessionDTO> startUpload(
+            @RequestParam("fileName") String fileName,
+            @RequestParam("contentType") String contentType,
+            @RequestParam("size") long size
+    ) {
+        return ResponseEntity.ok(chunkedUploadService.start(fileName, contentType, size));
+    }
+
+    // Raw chunk bytes as the body, with X-Chunk-SHA256 set to the hex SHA-256 of those bytes
+    @PutMapping("/{uploadId}")
+    public ResponseEntity<UploadSessionDTO> putChunk(
+            @PathVariable String uploadId,
+            @RequestParam("offset") long offset,
+            @RequestHeader("X-Chunk-SHA256") String sha256,
+            HttpServletRequest request
+    ) throws IOException {
+        try (InputStream body = request.getInputStream()) {
+            return ResponseEntity.ok(chunkedUploadService.putChunk(uploadId, offset, sha256, body));
+        }
+    }
+
+    // Which chunks have arrived, used to resume after a dropped connection
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<UploadSessionDTO> getUpload(@PathVariable String uploadId) {
+        return ResponseEntity.ok(chunkedUploadService.getStatus(uploadId));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<PostDTO> completeUpload(@PathVariable String uploadId, @RequestParam("postId") Long postId) {
+        Post post = chunkedUploadService.complete(uploadId, postId);
+        return ResponseEntity.ok(new PostDTO(post));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> abortUpload(@PathVariable String uploadId) {
+        chunkedUploadService.abort(uploadId);
+        return ResponseEntity.noContent().build();
+    }
+}
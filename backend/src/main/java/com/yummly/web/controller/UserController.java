@@ -1,31 +1,65 @@
 package com.yummly.web.controller;
 
 
+import com.yummly.web.dto.LoginResponseDTO;
 import com.yummly.web.dto.UserDTO;
-import com.yummly.web.model.User;
+import com.yummly.web.dto.UserPageDTO;
+import com.yummly.web.dto.UserSummaryDTO;
+import com.yummly.web.service.TokenService;
 import com.yummly.web.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 
 
 @RequestMapping(value = "api/v1/")
 public class UserController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserController.class);
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TokenService tokenService;
+
 
     @GetMapping("/getUsers")
     public List<UserDTO> getUsers() {
         return userService.getAllUsers();
     }
 
+    // Paged directory in id order; pass nextCursor from the previous page to continue
+    @GetMapping("/users")
+    public ResponseEntity<UserPageDTO> getUsersPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, 500));
+        return ResponseEntity.ok(userService.getUsersPage(cursor, pageSize));
+    }
+
+    // Full directory as newline-delimited JSON, streamed in batches. To resume an interrupted
+    // export, pass the id from the last line received as afterId
+    @GetMapping(value = "/users/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(value = "afterId", defaultValue = "0") long afterId) {
+        StreamingResponseBody body = out -> userService.exportUsers(afterId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @PostMapping("/adduser")
     public UserDTO saveUser(@RequestBody UserDTO userDTO) {
         return userService.saveUser(userDTO);
@@ -43,24 +77,12 @@ public class UserController {
 
     @PostMapping("/login")
     public ResponseEntity<?> loginUser(@RequestBody UserDTO userDTO) {
-        System.out.println("Login attempt with email: " + userDTO.getEmail());
-
-        User existingUser = userService.getUserByEmail(userDTO.getEmail());
-
-        if (existingUser != null) {
-            System.out.println("User found: " + existingUser.getEmail());
-
-            if (existingUser.getPassword().equals(userDTO.getPassword())) {
-                System.out.println("Login successful");
-                return ResponseEntity.ok(existingUser);
-            } else {
-                System.out.println("Incorrect password");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
-            }
-        } else {
-            System.out.println("User not found");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+        Optional<UserSummaryDTO> user = userService.login(userDTO.getEmail(), userDTO.getPassword());
+        if (user.isPresent()) {
+            return ResponseEntity.ok(new LoginResponseDTO(user.get(), tokenService.issue(user.get())));
         }
+        logger.info("Failed login for {}", userDTO.getEmail());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
     }
 
 
@@ -0,0 +1,21 @@
+package com.yummly.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupSearchHitDTO {
+    // DISCUSSION, COMMENT or MESSAGE
+    private String type;
+    private Long id;
+    private Long groupId;
+    private Long discussionId;
+    private String title;
+    private String snippet;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,14 @@
+package com.yummly.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeStateDTO {
+    private Long postId;
+    private boolean liked;
+    private long likeCount;
+}
@@ -0,0 +1,14 @@
+package com.yummly.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Login result: the user plus the signed token to send back as "Authorization: Bearer <token>"
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginResponseDTO {
+    private UserSummaryDTO user;
+    private String token;
+}
@@ -11,14 +11,35 @@ public class PostDTO {
     private String title;
     private String imagePath;
     private String videoPath;
+    // Smaller renditions of imagePath; null until they have been generated
+    private String thumbnailPath;
+    private String mediumPath;
     private String description;
     private String userName;
+    private long likeCount;
+    private long commentCount;
+    private boolean likedByViewer;
+
+    // Used by feed queries that project the author name directly
+    public PostDTO(Long id, String title, String imagePath, String videoPath, String thumbnailPath, String mediumPath,
+                   String description, String userName) {
+        this.id = id;
+        this.title = title;
+        this.imagePath = imagePath;
+        this.videoPath = videoPath;
+        this.thumbnailPath = thumbnailPath;
+        this.mediumPath = mediumPath;
+        this.description = description;
+        this.userName = userName;
+    }
 
     public PostDTO(Post post) {
         this.id = post.getId();
         this.title = post.getTitle();
         this.imagePath = post.getImagePath();
         this.videoPath = post.getVideoPath();
+        this.thumbnailPath = post.getThumbnailPath();
+        this.mediumPath = post.getMediumPath();
         this.description = post.getDescription();
         this.userName = post.getUser() != null ? post.getUser().getName() : null;
     }
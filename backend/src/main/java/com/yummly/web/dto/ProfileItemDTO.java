@@ -0,0 +1,15 @@
+package com.yummly.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A recipe or group as listed on a profile: just enough to render a link card
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfileItemDTO {
+    private Long id;
+    private String title;
+    private String imageUrl;
+}
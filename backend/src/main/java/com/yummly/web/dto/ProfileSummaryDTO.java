@@ -0,0 +1,24 @@
+package com.yummly.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfileSummaryDTO {
+    private Long userId;
+    private String name;
+    private long postCount;
+    private long recipeCount;
+    private long groupCount;
+    private long adminGroupCount;
+    private List<PostDTO> latestPosts = new ArrayList<>();
+    private List<ProfileItemDTO> latestRecipes = new ArrayList<>();
+    // Groups the user belongs to, most recently joined first
+    private List<ProfileItemDTO> groups = new ArrayList<>();
+}
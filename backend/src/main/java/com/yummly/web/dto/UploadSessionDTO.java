@@ -0,0 +1,21 @@
+package com.yummly.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDTO {
+    private String uploadId;
+    private String fileName;
+    private String contentType;
+    private long totalSize;
+    // Every chunk except the last must be exactly this many bytes, at offsets that are multiples of it
+    private long chunkSize;
+    private int totalChunks;
+    private int receivedChunks;
+    // Offset of the first chunk still missing, -1 once everything has arrived
+    private long nextOffset;
+}
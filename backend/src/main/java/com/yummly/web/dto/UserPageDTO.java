@@ -0,0 +1,17 @@
+package com.yummly.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageDTO {
+    private List<UserSummaryDTO> items = new ArrayList<>();
+    // Opaque token for the next page, null after the last user
+    private String nextCursor;
+}
@@ -27,6 +27,26 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
     }
     
+    @ExceptionHandler(MediaTooLargeException.class)
+    public ResponseEntity<Object> handleMediaTooLarge(MediaTooLargeException ex, WebRequest request) {
+        logger.warn("Rejected upload: {}", ex.getMessage());
+        
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", ex.getMessage());
+        
+        return new ResponseEntity<>(body, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+    
+    @ExceptionHandler(DuplicateEmailException.class)
+    public ResponseEntity<Object> handleDuplicateEmail(DuplicateEmailException ex, WebRequest request) {
+        logger.warn("Rejected user: {}", ex.getMessage());
+        
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", ex.getMessage());
+        
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+    
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Object> handleRuntimeException(RuntimeException ex, WebRequest request) {
         logger.error("Runtime exception: {}", ex.getMessage(), ex);
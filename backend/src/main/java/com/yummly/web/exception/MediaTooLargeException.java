@@ -0,0 +1,7 @@
+package com.yummly.web.exception;
+
+public class MediaTooLargeException extends FileStorageException {
+    public MediaTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class GroupComment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "group_comments_seq")
+    @SequenceGenerator(name = "group_comments_seq", sequenceName = "group_comments_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 10000)
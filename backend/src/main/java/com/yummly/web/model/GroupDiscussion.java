@@ -16,7 +16,8 @@ import java.util.List;
 @AllArgsConstructor
 public class GroupDiscussion {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "group_discussions_seq")
+    @SequenceGenerator(name = "group_discussions_seq", sequenceName = "group_discussions_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
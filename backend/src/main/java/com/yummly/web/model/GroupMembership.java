@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class GroupMembership {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled: ids come 50 at a time, so Hibernate can batch inserts (IDENTITY rules that out)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "group_memberships_seq")
+    @SequenceGenerator(name = "group_memberships_seq", sequenceName = "group_memberships_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
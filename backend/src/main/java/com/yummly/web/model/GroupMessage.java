@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class GroupMessage {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "group_messages_seq")
+    @SequenceGenerator(name = "group_messages_seq", sequenceName = "group_messages_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 1000)
@@ -33,7 +34,10 @@ public class GroupMessage {
     
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Imported messages keep their original time
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
     
     // Explicit getters and setters
@@ -24,8 +24,21 @@ public class Post {
     @Column(name = "video")
     private String videoPath;
 
+    // Downscaled copies of the image. Only written by PostRepository's bulk updates, so saving a
+    // post loaded before ImageDerivativeService finished cannot wipe them out
+    @Column(name = "image_thumbnail", updatable = false)
+    private String thumbnailPath;
+
+    @Column(name = "image_medium", updatable = false)
+    private String mediumPath;
+
     private String description;
 
+    // Denormalized like count. Only written by LikeCounterService's bulk flush, so saving a post
+    // loaded before a flush cannot put back a stale count
+    @Column(name = "like_count", updatable = false)
+    private Long likeCount;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
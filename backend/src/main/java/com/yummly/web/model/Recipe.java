@@ -5,11 +5,14 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipes")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,11 +29,13 @@ public class Recipe {
     private String imageUrl;
     
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipe-ingredients")
     private List<String> ingredients = new ArrayList<>();
     
     private String cuisine;
     
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipe-dietary-preferences")
     private List<String> dietaryPreferences = new ArrayList<>();
     
     private Integer prepTimeMinutes;
@@ -11,7 +11,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class RecipeComment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_comment_seq")
+    @SequenceGenerator(name = "recipe_comment_seq", sequenceName = "recipe_comment_seq", allocationSize = 50)
     private Long id;
     
     @Column(length = 1000)
@@ -0,0 +1,14 @@
+package com.yummly.web.repo;
+
+import com.yummly.web.model.GroupComment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GroupCommentRepo extends JpaRepository<GroupComment, Long> {
+    @Query("SELECT c FROM GroupComment c JOIN FETCH c.discussion d JOIN FETCH d.group")
+    List<GroupComment> findAllWithDiscussion();
+}
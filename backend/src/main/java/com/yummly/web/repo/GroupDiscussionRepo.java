@@ -4,6 +4,7 @@ import com.yummly.web.model.Group;
 import com.yummly.web.model.GroupDiscussion;
 import com.yummly.web.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +18,7 @@ public interface GroupDiscussionRepo extends JpaRepository<GroupDiscussion, Long
     List<GroupDiscussion> findByGroupOrderByCreatedAtDesc(Group group);
     
     List<GroupDiscussion> findByGroupAndTitleContainingIgnoreCase(Group group, String keyword);
+    
+    @Query("SELECT d FROM GroupDiscussion d JOIN FETCH d.group")
+    List<GroupDiscussion> findAllWithGroup();
 } 
\ No newline at end of file
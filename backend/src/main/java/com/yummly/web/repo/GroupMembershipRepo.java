@@ -1,9 +1,12 @@
 package com.yummly.web.repo;
 
+import com.yummly.web.dto.ProfileItemDTO;
 import com.yummly.web.model.Group;
 import com.yummly.web.model.GroupMembership;
 import com.yummly.web.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,7 +24,29 @@ public interface GroupMembershipRepo extends JpaRepository<GroupMembership, Long
     
     void deleteByGroupAndUser(Group group, User user);
     
+    // Id-based variants, so callers that only know the ids don't have to load the rows first
+    boolean existsByGroup_IdAndUser_Id(Long groupId, Long userId);
+    
+    boolean existsByGroup_IdAndUser_IdAndModeratorIsTrue(Long groupId, Long userId);
+    
+    void deleteByGroup_IdAndUser_Id(Long groupId, Long userId);
+    
     List<GroupMembership> findByGroupAndModeratorIsTrue(Group group);
     
     int countByGroup(Group group);
+    
+    @Query("SELECT m.group.id FROM GroupMembership m WHERE m.user.id = ?1")
+    List<Long> findGroupIdsByUserId(Long userId);
+    
+    @Query("SELECT m.group.id FROM GroupMembership m WHERE m.user.id = ?1 AND m.moderator = true")
+    List<Long> findModeratedGroupIdsByUserId(Long userId);
+    
+    @Query("SELECT m.user.id FROM GroupMembership m WHERE m.group.id = ?1")
+    List<Long> findUserIdsByGroupId(Long groupId);
+    
+    long countByUser_Id(Long userId);
+    
+    @Query("SELECT new com.yummly.web.dto.ProfileItemDTO(g.id, g.name, g.imageUrl) FROM GroupMembership m " +
+           "JOIN m.group g WHERE m.user.id = ?1 ORDER BY m.joinedAt DESC, m.id DESC")
+    List<ProfileItemDTO> findGroupItemsByUserId(Long userId, Pageable pageable);
 } 
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.yummly.web.repo;
 
 import com.yummly.web.model.GroupMessage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +10,7 @@ import java.util.List;
 @Repository
 public interface GroupMessageRepo extends JpaRepository<GroupMessage, Long> {
     List<GroupMessage> findByGroupIdOrderByCreatedAtDesc(Long groupId);
+    
+    @Query("SELECT m FROM GroupMessage m JOIN FETCH m.group")
+    List<GroupMessage> findAllWithGroup();
 } 
\ No newline at end of file
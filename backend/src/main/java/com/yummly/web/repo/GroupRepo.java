@@ -2,14 +2,23 @@ package com.yummly.web.repo;
 
 import com.yummly.web.model.Group;
 import com.yummly.web.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface GroupRepo extends JpaRepository<Group, Long> {
+    // Group listings are read far more often than groups change; cached until community_groups is written
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Group> findAll();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Group> findByCuisineType(String cuisineType);
     
     List<Group> findByNameContainingIgnoreCase(String name);
@@ -18,4 +27,12 @@ public interface GroupRepo extends JpaRepository<Group, Long> {
     List<Group> findGroupsByMember(User user);
     
     List<Group> findByAdmin(User admin);
+    
+    long countByAdmin_Id(Long adminId);
+    
+    boolean existsByIdAndAdmin_Id(Long id, Long adminId);
+    
+    @Query("SELECT g.id FROM Group g WHERE g.admin.id = ?1")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Long> findIdsByAdminId(Long adminId);
 } 
\ No newline at end of file
@@ -1,13 +1,74 @@
 package com.yummly.web.repo;
 
+import com.yummly.web.dto.PostDTO;
 import com.yummly.web.model.Post;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
     List<Post> findByUser_Id(Long userId);
+
+    long countByUser_Id(Long userId);
+
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.user ORDER BY p.id DESC")
+    List<Post> findAllWithUser();
+
+    // Keyset page of the feed, newest first, walking the primary key index
+    @Query("SELECT new com.yummly.web.dto.PostDTO(p.id, p.title, p.imagePath, p.videoPath, " +
+           "p.thumbnailPath, p.mediumPath, p.description, u.name) " +
+           "FROM Post p LEFT JOIN p.user u WHERE p.id < :beforeId ORDER BY p.id DESC")
+    List<PostDTO> findFeedPage(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT new com.yummly.web.dto.PostDTO(p.id, p.title, p.imagePath, p.videoPath, " +
+           "p.thumbnailPath, p.mediumPath, p.description, u.name) " +
+           "FROM Post p LEFT JOIN p.user u WHERE p.id IN :ids ORDER BY p.id DESC")
+    List<PostDTO> findDTOsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.yummly.web.dto.PostDTO(p.id, p.title, p.imagePath, p.videoPath, " +
+           "p.thumbnailPath, p.mediumPath, p.description, u.name) " +
+           "FROM Post p JOIN p.user u WHERE u.id = :userId ORDER BY p.id DESC")
+    List<PostDTO> findLatestByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Number of posts whose image, video or image derivatives are stored under the given path
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.imagePath = :path OR p.videoPath = :path " +
+           "OR p.thumbnailPath = :path OR p.mediumPath = :path")
+    long countMediaReferences(@Param("path") String path);
+
+    // Every media path any post references, read in batches; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.imagePath, p.videoPath, p.thumbnailPath, p.mediumPath FROM Post p")
+    Stream<Object[]> streamMediaPaths();
+
+    // Record derivatives only if the post still shows the image they were made from
+    @Modifying
+    @Transactional
+    @Query("UPDATE Post p SET p.thumbnailPath = :thumbnailPath, p.mediumPath = :mediumPath " +
+           "WHERE p.id = :postId AND p.imagePath = :imagePath")
+    int updateImageDerivatives(@Param("postId") Long postId, @Param("imagePath") String imagePath,
+                               @Param("thumbnailPath") String thumbnailPath, @Param("mediumPath") String mediumPath);
+
+    // Drop derivatives after the image changes; the new ones are recorded by updateImageDerivatives
+    @Modifying
+    @Transactional
+    @Query("UPDATE Post p SET p.thumbnailPath = NULL, p.mediumPath = NULL WHERE p.id = :postId")
+    int clearImageDerivatives(@Param("postId") Long postId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Post p SET p.likeCount = :likeCount WHERE p.id = :postId")
+    int updateLikeCount(@Param("postId") Long postId, @Param("likeCount") Long likeCount);
     // Additional methods if needed
 }
@@ -1,9 +1,17 @@
 package com.yummly.web.repo;
 
+import com.yummly.web.dto.UserSummaryDTO;
 import com.yummly.web.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 
 
@@ -12,4 +20,19 @@ public interface UserRepo extends JpaRepository<User,Long> {
 
 
     User findByEmail(String email);
+
+    // Served by the unique email index
+    @Query("SELECT u.id FROM User u WHERE u.email = ?1")
+    Optional<Long> findIdByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    // Which of the given ids belong to existing users
+    @Query("SELECT u.id FROM User u WHERE u.id IN ?1")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    // Keyset page of the directory in id order; never selects the password or the posts collection
+    @Query("SELECT new com.yummly.web.dto.UserSummaryDTO(u.id, u.name, u.email) " +
+           "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserSummaryDTO> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
\ No newline at end of file
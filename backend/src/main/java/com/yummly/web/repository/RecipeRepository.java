@@ -1,9 +1,14 @@
 package com.yummly.web.repository;
 
+import com.yummly.web.dto.ProfileItemDTO;
 import com.yummly.web.model.Recipe;
 import com.yummly.web.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,6 +18,13 @@ import java.util.List;
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     List<Recipe> findByUser(User user);
     
+    long countByUser_Id(Long userId);
+    
+    @Query("SELECT new com.yummly.web.dto.ProfileItemDTO(r.id, r.title, r.imageUrl) FROM Recipe r " +
+           "WHERE r.user.id = :userId ORDER BY r.createdAt DESC")
+    List<ProfileItemDTO> findLatestItemsByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Recipe> findByCuisineContainingIgnoreCase(String cuisine);
     
     @Query("SELECT DISTINCT r FROM Recipe r JOIN r.ingredients i WHERE LOWER(i) LIKE LOWER(CONCAT('%', :ingredient, '%'))")
@@ -26,6 +38,7 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
            "LOWER(r.cuisine) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<Recipe> searchRecipes(@Param("query") String query);
     
-    // Find latest recipes (for homepage)
+    // Find latest recipes (for homepage); cached until the recipe table changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Recipe> findTop10ByOrderByCreatedAtDesc();
 } 
\ No newline at end of file
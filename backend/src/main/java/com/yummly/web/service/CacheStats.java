@@ -0,0 +1,50 @@
+package com.yummly.web.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit and miss counts for one of the in-memory caches, published with the same meter names
+ * Micrometer uses for Caffeine and JCache ({@code cache.gets} tagged hit/miss, {@code cache.size}),
+ * so dashboards treat them alike.
+ */
+final class CacheStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    void hit() {
+        hits.increment();
+    }
+
+    void hits(int count) {
+        hits.add(count);
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    void misses(int count) {
+        misses.add(count);
+    }
+
+    void register(MeterRegistry registry, String cache, Map<?, ?> entries) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tags("cache", cache, "result", "hit")
+                .description("Lookups answered from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tags("cache", cache, "result", "miss")
+                .description("Lookups that went to the database")
+                .register(registry);
+        Gauge.builder("cache.size", entries, Map::size)
+                .tag("cache", cache)
+                .description("Entries currently cached")
+                .register(registry);
+    }
+}
@@ -0,0 +1,316 @@
+package com.yummly.web.service;
+
+import com.yummly.web.dto.UploadSessionDTO;
+import com.yummly.web.exception.FileStorageException;
+import com.yummly.web.exception.MediaTooLargeException;
+import com.yummly.web.model.Post;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resumable uploads for large media. A client opens a session with the total size, sends fixed-size
+ * chunks at their offsets (in any order, retrying any that fail) and then completes the session to
+ * attach the file to a post. Chunks are written positionally into a sparse part file under
+ * {@code file.upload-dir/.partial}, so a dropped connection only costs the chunk in flight.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final String PARTIAL_DIR = ".partial";
+
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @Autowired
+    private PostService postService;
+
+    @Value("${upload.chunk-size:8388608}")
+    private long chunkSize;
+
+    // Sessions that receive nothing for this long are dropped along with their part file
+    @Value("${upload.session-ttl-ms:86400000}")
+    private long sessionTtlMillis;
+
+    private Path partialDir;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        partialDir = mediaStorageService.getUploadRoot().resolve(PARTIAL_DIR);
+        Files.createDirectories(partialDir);
+        // Sessions live in memory, so part files left over from a previous run can never be completed
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(partialDir)) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+    }
+
+    public UploadSessionDTO start(String fileName, String contentType, long totalSize) {
+        if (!mediaStorageService.isImage(contentType) && !mediaStorageService.isVideo(contentType)) {
+            throw new IllegalArgumentException("Unsupported media type: " + contentType);
+        }
+        if (totalSize <= 0) {
+            throw new IllegalArgumentException("Upload size must be positive");
+        }
+        long maxBytes = mediaStorageService.maxBytesFor(contentType);
+        if (totalSize > maxBytes) {
+            throw new MediaTooLargeException("File exceeds the maximum size of " + maxBytes + " bytes");
+        }
+
+        String uploadId = UUID.randomUUID().toString();
+        Path partFile = partialDir.resolve(uploadId + ".part");
+        try {
+            FileChannel.open(partFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.SPARSE).close();
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to start upload: " + e.getMessage());
+        }
+
+        UploadSession session = new UploadSession(uploadId, fileName, contentType, totalSize, chunkSize, partFile);
+        sessions.put(uploadId, session);
+        return toDTO(session);
+    }
+
+    // Write one chunk; the body must be the whole chunk and match the client's SHA-256 of it
+    public UploadSessionDTO putChunk(String uploadId, long offset, String sha256, InputStream body) {
+        UploadSession session = getSession(uploadId);
+        if (offset < 0 || offset >= session.totalSize || offset % session.chunkSize != 0) {
+            throw new IllegalArgumentException("Invalid chunk offset: " + offset);
+        }
+        if (sha256 == null || sha256.isBlank()) {
+            throw new IllegalArgumentException("Chunk checksum is required");
+        }
+        int index = (int) (offset / session.chunkSize);
+        long expected = Math.min(session.chunkSize, session.totalSize - offset);
+
+        session.lock.lock();
+        try {
+            if (session.completing) {
+                throw new IllegalArgumentException("Upload is already being completed");
+            }
+            // A verified chunk is never rewritten, and only one request may write a given chunk at a time
+            if (session.received.get(index)) {
+                throw new IllegalArgumentException("Chunk at offset " + offset + " was already received");
+            }
+            if (session.writing.get(index)) {
+                throw new IllegalArgumentException("Chunk at offset " + offset + " is already being written");
+            }
+            session.writing.set(index);
+            session.activeWrites++;
+        } finally {
+            session.lock.unlock();
+        }
+        boolean verified = false;
+        try {
+            String actual = writeChunk(session.partFile, offset, expected, body);
+            verified = actual.equalsIgnoreCase(sha256.trim());
+            if (!verified) {
+                throw new IllegalArgumentException("Checksum mismatch for chunk at offset " + offset);
+            }
+        } finally {
+            session.lock.lock();
+            try {
+                session.activeWrites--;
+                session.writing.clear(index);
+                if (verified) {
+                    session.received.set(index);
+                }
+                session.touch();
+            } finally {
+                session.lock.unlock();
+            }
+        }
+        return toDTO(session);
+    }
+
+    public UploadSessionDTO getStatus(String uploadId) {
+        return toDTO(getSession(uploadId));
+    }
+
+    // Move the assembled file into the media store and attach it to the post
+    public Post complete(String uploadId, Long postId) {
+        UploadSession session = getSession(uploadId);
+        // Fail before touching the part file so the client can retry with the right post
+        postService.getPostById(postId);
+        session.lock.lock();
+        try {
+            if (session.completing) {
+                throw new IllegalArgumentException("Upload is already being completed");
+            }
+            if (session.activeWrites > 0 || session.received.cardinality() < session.totalChunks) {
+                throw new IllegalArgumentException("Upload is missing chunks");
+            }
+            session.completing = true;
+        } finally {
+            session.lock.unlock();
+        }
+
+        try {
+            StoredMedia media = mediaStorageService.adopt(session.partFile, session.fileName);
+            sessions.remove(uploadId);
+            try {
+                return postService.attachStoredMedia(postId, session.contentType, media);
+            } catch (RuntimeException e) {
+                mediaStorageService.release(media.getFileName());
+                throw e;
+            }
+        } catch (FileStorageException e) {
+            // The part file is gone at this point, so the session cannot be retried
+            sessions.remove(uploadId);
+            throw e;
+        }
+    }
+
+    public void abort(String uploadId) {
+        UploadSession session = sessions.remove(uploadId);
+        if (session != null) {
+            deletePartFile(session);
+        }
+    }
+
+    // Drop sessions that have been idle longer than the TTL
+    @Scheduled(fixedDelayString = "${upload.cleanup-interval-ms:600000}")
+    public void expireSessions() {
+        long cutoff = System.currentTimeMillis() - sessionTtlMillis;
+        for (UploadSession session : sessions.values()) {
+            boolean busy;
+            session.lock.lock();
+            try {
+                busy = session.completing || session.activeWrites > 0 || session.lastTouched > cutoff;
+            } finally {
+                session.lock.unlock();
+            }
+            if (busy) {
+                continue;
+            }
+            if (sessions.remove(session.uploadId, session)) {
+                logger.info("Expired upload {}", session.uploadId);
+                deletePartFile(session);
+            }
+        }
+    }
+
+    private String writeChunk(Path partFile, long offset, long expected, InputStream body) {
+        MessageDigest digest = sha256();
+        byte[] bytes = new byte[64 * 1024];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try (FileChannel channel = FileChannel.open(partFile, StandardOpenOption.WRITE)) {
+            long written = 0;
+            int read;
+            while ((read = body.read(bytes, 0, (int) Math.min(bytes.length, expected + 1 - written))) > 0) {
+                written += read;
+                if (written > expected) {
+                    throw new IllegalArgumentException("Chunk is larger than " + expected + " bytes");
+                }
+                digest.update(bytes, 0, read);
+                buffer.clear().limit(read);
+                long position = offset + written - read;
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            }
+            if (written != expected) {
+                throw new IllegalArgumentException("Chunk is " + written + " bytes, expected " + expected);
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to write chunk: " + e.getMessage());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private UploadSession getSession(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            throw new IllegalArgumentException("Upload not found: " + uploadId);
+        }
+        return session;
+    }
+
+    private UploadSessionDTO toDTO(UploadSession session) {
+        session.lock.lock();
+        try {
+            int next = session.received.nextClearBit(0);
+            long nextOffset = next >= session.totalChunks ? -1 : next * session.chunkSize;
+            return new UploadSessionDTO(session.uploadId, session.fileName, session.contentType, session.totalSize,
+                    session.chunkSize, session.totalChunks, session.received.cardinality(), nextOffset);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    private void deletePartFile(UploadSession session) {
+        try {
+            Files.deleteIfExists(session.partFile);
+        } catch (IOException e) {
+            logger.warn("Could not delete part file {}: {}", session.partFile, e.getMessage());
+        }
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Mutable state is guarded by the session lock. A lock rather than synchronized: on virtual threads
+    // a thread waiting for a monitor pins its carrier, and parallel chunk PUTs contend on the same session
+    private static final class UploadSession {
+        final ReentrantLock lock = new ReentrantLock();
+        final String uploadId;
+        final String fileName;
+        final String contentType;
+        final long totalSize;
+        final long chunkSize;
+        final int totalChunks;
+        final Path partFile;
+        final BitSet received;
+        final BitSet writing;
+        int activeWrites;
+        boolean completing;
+        long lastTouched;
+
+        UploadSession(String uploadId, String fileName, String contentType, long totalSize, long chunkSize, Path partFile) {
+            this.uploadId = uploadId;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.totalSize = totalSize;
+            this.chunkSize = chunkSize;
+            this.totalChunks = (int) ((totalSize + chunkSize - 1) / chunkSize);
+            this.partFile = partFile;
+            this.received = new BitSet(totalChunks);
+            this.writing = new BitSet(totalChunks);
+            this.lastTouched = System.currentTimeMillis();
+        }
+
+        void touch() {
+            lastTouched = System.currentTimeMillis();
+        }
+    }
+}
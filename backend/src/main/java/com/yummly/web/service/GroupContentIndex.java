@@ -0,0 +1,387 @@
+package com.yummly.web.service;
+
+import com.yummly.web.dto.GroupSearchHitDTO;
+import com.yummly.web.model.GroupComment;
+import com.yummly.web.model.GroupDiscussion;
+import com.yummly.web.model.GroupMessage;
+import com.yummly.web.repo.GroupCommentRepo;
+import com.yummly.web.repo.GroupDiscussionRepo;
+import com.yummly.web.repo.GroupMessageRepo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index over group discussions, discussion comments and chat messages.
+ * Writes are applied on a single background thread after the surrounding transaction commits;
+ * searches are restricted to the caller's groups by intersecting with per-group document bitmaps.
+ */
+@Component
+public class GroupContentIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupContentIndex.class);
+
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSION = 64;
+    private static final int SNIPPET_LENGTH = 160;
+    private static final int COMPACTION_THRESHOLD = 10_000;
+
+    @Autowired
+    private GroupDiscussionRepo discussionRepo;
+
+    @Autowired
+    private GroupCommentRepo commentRepo;
+
+    @Autowired
+    private GroupMessageRepo messageRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "group-search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private IndexState state = new IndexState();
+
+    // Build the index from the database once the application is up
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        submit(this::rebuild);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexer.shutdownNow();
+    }
+
+    // Index (or re-index) a discussion together with its comments
+    public void indexDiscussion(GroupDiscussion discussion) {
+        List<IndexedDoc> docs = new ArrayList<>();
+        docs.add(IndexedDoc.of(discussion));
+        for (GroupComment comment : discussion.getComments()) {
+            if (comment.getId() != null) {
+                docs.add(IndexedDoc.of(comment, discussion));
+            }
+        }
+        Long discussionId = discussion.getId();
+        schedule(() -> write(s -> {
+            s.removeComments(discussionId);
+            docs.forEach(s::add);
+        }));
+    }
+
+    public void indexMessage(GroupMessage message) {
+        IndexedDoc doc = IndexedDoc.of(message);
+        schedule(() -> write(s -> s.add(doc)));
+    }
+
+    public void indexMessages(List<GroupMessage> messages) {
+        List<IndexedDoc> docs = messages.stream().map(IndexedDoc::of).toList();
+        schedule(() -> write(s -> docs.forEach(s::add)));
+    }
+
+    public void removeDiscussion(Long discussionId) {
+        schedule(() -> write(s -> {
+            s.remove(IndexedDoc.DISCUSSION + ":" + discussionId);
+            s.removeComments(discussionId);
+        }));
+    }
+
+    public void removeMessage(Long messageId) {
+        schedule(() -> write(s -> s.remove(IndexedDoc.MESSAGE + ":" + messageId)));
+    }
+
+    public void removeGroup(Long groupId) {
+        schedule(() -> write(s -> s.removeGroup(groupId)));
+    }
+
+    // Search all content visible to members of the given groups, newest first
+    public List<GroupSearchHitDTO> search(String query, Collection<Long> groupIds, int limit) {
+        List<String> terms = tokenize(query);
+        List<GroupSearchHitDTO> hits = new ArrayList<>();
+        if (terms.isEmpty() || groupIds.isEmpty() || limit <= 0) {
+            return hits;
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet result = new BitSet();
+            for (Long groupId : groupIds) {
+                BitSet visible = state.groupDocs.get(groupId);
+                if (visible != null) {
+                    result.or(visible);
+                }
+            }
+            for (String term : terms) {
+                if (result.isEmpty()) {
+                    break;
+                }
+                result.and(state.match(term));
+            }
+            for (int docId = result.length() - 1; docId >= 0 && hits.size() < limit; docId = result.previousSetBit(docId - 1)) {
+                hits.add(state.docs.get(docId).toHit());
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rebuild() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        IndexState fresh = template.execute(status -> {
+            IndexState s = new IndexState();
+            discussionRepo.findAllWithGroup().forEach(d -> s.add(IndexedDoc.of(d)));
+            commentRepo.findAllWithDiscussion().forEach(c -> s.add(IndexedDoc.of(c, c.getDiscussion())));
+            messageRepo.findAllWithGroup().forEach(m -> s.add(IndexedDoc.of(m)));
+            return s;
+        });
+
+        lock.writeLock().lock();
+        try {
+            state = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Group search index rebuilt with {} documents", fresh.live.cardinality());
+    }
+
+    private void write(Consumer<IndexState> mutation) {
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            mutation.accept(state);
+            compact = state.deadDocs > COMPACTION_THRESHOLD && state.deadDocs > state.live.cardinality();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            rebuild();
+        }
+    }
+
+    // Defer index updates until the caller's transaction has committed
+    private void schedule(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(task);
+                }
+            });
+        } else {
+            submit(task);
+        }
+    }
+
+    private void submit(Runnable task) {
+        try {
+            indexer.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    logger.error("Error updating group search index: {}", e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Group search index is shut down, dropping update");
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return new ArrayList<>();
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        Set<String> terms = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean letter = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                if (i - start >= MIN_TERM_LENGTH) {
+                    terms.add(lower.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    // Mutable index structures, only modified under the write lock or before publication
+    private static final class IndexState {
+        // term -> ascending doc ids (may contain removed docs, filtered by the group bitmaps)
+        private final TreeMap<String, IntList> postings = new TreeMap<>();
+        // group id -> docs visible to members of that group
+        private final Map<Long, BitSet> groupDocs = new HashMap<>();
+        private final List<IndexedDoc> docs = new ArrayList<>();
+        private final BitSet live = new BitSet();
+        private final Map<String, Integer> docIdsByKey = new HashMap<>();
+        private final Map<Long, List<String>> commentKeysByDiscussion = new HashMap<>();
+        private int deadDocs;
+
+        void add(IndexedDoc doc) {
+            remove(doc.key);
+            int docId = docs.size();
+            docs.add(doc);
+            live.set(docId);
+            docIdsByKey.put(doc.key, docId);
+            groupDocs.computeIfAbsent(doc.groupId, id -> new BitSet()).set(docId);
+            if (IndexedDoc.COMMENT.equals(doc.type)) {
+                commentKeysByDiscussion.computeIfAbsent(doc.discussionId, id -> new ArrayList<>()).add(doc.key);
+            }
+            for (String term : tokenize(doc.text)) {
+                postings.computeIfAbsent(term, t -> new IntList()).add(docId);
+            }
+            doc.text = null;
+        }
+
+        void remove(String key) {
+            Integer docId = docIdsByKey.remove(key);
+            if (docId == null) {
+                return;
+            }
+            IndexedDoc doc = docs.set(docId, null);
+            live.clear(docId);
+            BitSet visible = groupDocs.get(doc.groupId);
+            if (visible != null) {
+                visible.clear(docId);
+            }
+            deadDocs++;
+        }
+
+        void removeComments(Long discussionId) {
+            List<String> keys = commentKeysByDiscussion.remove(discussionId);
+            if (keys != null) {
+                keys.forEach(this::remove);
+            }
+        }
+
+        void removeGroup(Long groupId) {
+            BitSet visible = groupDocs.remove(groupId);
+            if (visible == null) {
+                return;
+            }
+            for (int docId = visible.nextSetBit(0); docId >= 0; docId = visible.nextSetBit(docId + 1)) {
+                IndexedDoc doc = docs.get(docId);
+                if (doc != null) {
+                    commentKeysByDiscussion.remove(doc.discussionId);
+                    remove(doc.key);
+                }
+            }
+        }
+
+        // Docs containing a term starting with the given prefix
+        BitSet match(String prefix) {
+            BitSet matches = new BitSet();
+            SortedMap<String, IntList> candidates = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+            int expanded = 0;
+            for (IntList docIds : candidates.values()) {
+                if (expanded++ == MAX_PREFIX_EXPANSION) {
+                    break;
+                }
+                for (int i = 0; i < docIds.size; i++) {
+                    matches.set(docIds.values[i]);
+                }
+            }
+            return matches;
+        }
+    }
+
+    private static final class IndexedDoc {
+        static final String DISCUSSION = "DISCUSSION";
+        static final String COMMENT = "COMMENT";
+        static final String MESSAGE = "MESSAGE";
+
+        final String key;
+        final String type;
+        final Long id;
+        final Long groupId;
+        final Long discussionId;
+        final String title;
+        final String snippet;
+        final LocalDateTime createdAt;
+        // Full text, released once the document has been tokenized
+        String text;
+
+        IndexedDoc(String type, Long id, Long groupId, Long discussionId, String title, String content, LocalDateTime createdAt) {
+            this.key = type + ":" + id;
+            this.type = type;
+            this.id = id;
+            this.groupId = groupId;
+            this.discussionId = discussionId;
+            this.title = title;
+            this.snippet = content == null || content.length() <= SNIPPET_LENGTH ? content : content.substring(0, SNIPPET_LENGTH);
+            this.createdAt = createdAt;
+            this.text = title == null ? content : title + " " + content;
+        }
+
+        static IndexedDoc of(GroupDiscussion discussion) {
+            return new IndexedDoc(DISCUSSION, discussion.getId(), discussion.getGroup().getId(), discussion.getId(),
+                    discussion.getTitle(), discussion.getContent(), discussion.getCreatedAt());
+        }
+
+        static IndexedDoc of(GroupComment comment, GroupDiscussion discussion) {
+            IndexedDoc doc = new IndexedDoc(COMMENT, comment.getId(), discussion.getGroup().getId(), discussion.getId(),
+                    discussion.getTitle(), comment.getContent(), comment.getCreatedAt());
+            // Only the comment body is searchable, the discussion title is shown for context
+            doc.text = comment.getContent();
+            return doc;
+        }
+
+        static IndexedDoc of(GroupMessage message) {
+            return new IndexedDoc(MESSAGE, message.getId(), message.getGroup().getId(), null,
+                    null, message.getContent(), message.getCreatedAt());
+        }
+
+        GroupSearchHitDTO toHit() {
+            return new GroupSearchHitDTO(type, id, groupId, discussionId, title, snippet, createdAt);
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
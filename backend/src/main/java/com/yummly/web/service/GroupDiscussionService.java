@@ -10,10 +10,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.yummly.web.dto.GroupSearchHitDTO;
 import com.yummly.web.model.Group;
 import com.yummly.web.model.GroupDiscussion;
 import com.yummly.web.model.User;
 import com.yummly.web.repo.GroupDiscussionRepo;
+import com.yummly.web.repo.GroupMembershipRepo;
 import com.yummly.web.repo.GroupRepo;
 import com.yummly.web.repo.UserRepo;
 
@@ -34,6 +36,12 @@ public class GroupDiscussionService {
     @Autowired
     private GroupService groupService;
     
+    @Autowired
+    private GroupMembershipRepo membershipRepo;
+    
+    @Autowired
+    private GroupContentIndex contentIndex;
+    
     // Get all discussions for a group
     public List<GroupDiscussion> getDiscussionsByGroup(Long groupId) {
         try {
@@ -79,7 +87,9 @@ public class GroupDiscussionService {
             discussion.setGroup(group);
             discussion.setUser(user);
             
-            return discussionRepo.save(discussion);
+            GroupDiscussion savedDiscussion = discussionRepo.save(discussion);
+            contentIndex.indexDiscussion(savedDiscussion);
+            return savedDiscussion;
         } catch (Exception e) {
             logger.error("Error creating discussion for group {}: {}", groupId, e.getMessage(), e);
             throw e;
@@ -104,7 +114,9 @@ public class GroupDiscussionService {
                 discussion.setTitle(updatedDiscussion.getTitle());
                 discussion.setContent(updatedDiscussion.getContent());
                 
-                return Optional.of(discussionRepo.save(discussion));
+                GroupDiscussion savedDiscussion = discussionRepo.save(discussion);
+                contentIndex.indexDiscussion(savedDiscussion);
+                return Optional.of(savedDiscussion);
             }
             
             return Optional.empty();
@@ -131,6 +143,7 @@ public class GroupDiscussionService {
                 
                 if (isAuthor || isAdmin || isModerator) {
                     discussionRepo.delete(discussion);
+                    contentIndex.removeDiscussion(discussionId);
                     return true;
                 } else {
                     throw new RuntimeException("You don't have permission to delete this discussion");
@@ -159,4 +172,15 @@ public class GroupDiscussionService {
             return new ArrayList<>();
         }
     }
+    
+    // Search discussions, comments and messages across all groups the user belongs to
+    public List<GroupSearchHitDTO> searchGroupContent(String query, Long userId, int limit) {
+        try {
+            List<Long> groupIds = membershipRepo.findGroupIdsByUserId(userId);
+            return contentIndex.search(query, groupIds, limit);
+        } catch (Exception e) {
+            logger.error("Error searching group content for user {}: {}", userId, e.getMessage(), e);
+            return new ArrayList<>();
+        }
+    }
 } 
\ No newline at end of file
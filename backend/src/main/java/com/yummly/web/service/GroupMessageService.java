@@ -4,18 +4,24 @@ import com.yummly.web.dto.GroupMessageDTO;
 import com.yummly.web.model.Group;
 import com.yummly.web.model.GroupMessage;
 import com.yummly.web.model.User;
+import com.yummly.web.repo.GroupMembershipRepo;
 import com.yummly.web.repo.GroupMessageRepo;
 import com.yummly.web.repo.GroupRepo;
 import com.yummly.web.repo.UserRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +29,9 @@ public class GroupMessageService {
 
     private static final Logger logger = LoggerFactory.getLogger(GroupMessageService.class);
 
+    // Matches the column length on GroupMessage.content
+    private static final int MAX_CONTENT_LENGTH = 1000;
+
     @Autowired
     private GroupMessageRepo messageRepo;
 
@@ -35,6 +44,21 @@ public class GroupMessageService {
     @Autowired
     private GroupService groupService;
 
+    @Autowired
+    private GroupMembershipRepo membershipRepo;
+
+    @Autowired
+    private GroupContentIndex contentIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${jdbc.batch-size:50}")
+    private int batchSize;
+
+    @Value("${groups.bulk.max-rows:10000}")
+    private int bulkMaxRows;
+
     // Convert GroupMessage entity to GroupMessageDTO
     private GroupMessageDTO convertToDTO(GroupMessage message) {
         GroupMessageDTO dto = new GroupMessageDTO();
@@ -80,6 +104,7 @@ public class GroupMessageService {
             message.setUser(user);
             
             GroupMessage savedMessage = messageRepo.save(message);
+            contentIndex.indexMessage(savedMessage);
             return convertToDTO(savedMessage);
         } catch (Exception e) {
             logger.error("Error creating message in group {}: {}", groupId, e.getMessage(), e);
@@ -87,6 +112,57 @@ public class GroupMessageService {
         }
     }
 
+    // Import a batch of messages, e.g. chat history from another system (admin only). Each message
+    // keeps its author and, when given, its original time; authors must be members. Inserts go out in
+    // JDBC batches and the whole import commits or fails together. Returns how many were imported
+    @Transactional
+    public int importMessages(Long groupId, Long adminId, List<GroupMessageDTO> messages) {
+        try {
+            Group group = groupRepo.findById(groupId)
+                    .orElseThrow(() -> new RuntimeException("Group not found"));
+            
+            if (group.getAdmin().getId() != adminId) {
+                throw new RuntimeException("Only group admin can import messages");
+            }
+            if (messages.size() > bulkMaxRows) {
+                throw new IllegalArgumentException("At most " + bulkMaxRows + " messages can be imported at once");
+            }
+            
+            Set<Long> members = new HashSet<>(membershipRepo.findUserIdsByGroupId(groupId));
+            for (GroupMessageDTO message : messages) {
+                String content = message.getContent();
+                if (content == null || content.isBlank() || content.length() > MAX_CONTENT_LENGTH) {
+                    throw new IllegalArgumentException("Message content must be 1 to " + MAX_CONTENT_LENGTH + " characters");
+                }
+                if (!members.contains(message.getUserId())) {
+                    throw new IllegalArgumentException("User " + message.getUserId() + " is not a member of the group");
+                }
+            }
+            
+            List<GroupMessage> saved = new ArrayList<>(messages.size());
+            int pending = 0;
+            for (GroupMessageDTO dto : messages) {
+                GroupMessage message = new GroupMessage();
+                message.setContent(dto.getContent());
+                message.setCreatedAt(dto.getCreatedAt());
+                message.setGroup(groupRepo.getReferenceById(groupId));
+                message.setUser(userRepo.getReferenceById(dto.getUserId()));
+                entityManager.persist(message);
+                saved.add(message);
+                if (++pending == batchSize) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    pending = 0;
+                }
+            }
+            contentIndex.indexMessages(saved);
+            return saved.size();
+        } catch (Exception e) {
+            logger.error("Error importing messages into group {}: {}", groupId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
     // Delete a message
     @Transactional
     public boolean deleteMessage(Long messageId, Long userId) {
@@ -103,6 +179,7 @@ public class GroupMessageService {
                     groupService.isAdmin(group.getId(), userId)) {
                     
                     messageRepo.delete(message);
+                    contentIndex.removeMessage(messageId);
                     return true;
                 } else {
                     throw new RuntimeException("You don't have permission to delete this message");
@@ -7,15 +7,22 @@ import com.yummly.web.model.User;
 import com.yummly.web.repo.GroupMembershipRepo;
 import com.yummly.web.repo.GroupRepo;
 import com.yummly.web.repo.UserRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +39,21 @@ public class GroupService {
     @Autowired
     private UserRepo userRepo;
     
+    @Autowired
+    private GroupContentIndex contentIndex;
+    
+    @Autowired
+    private ProfileService profileService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${jdbc.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${groups.bulk.max-rows:10000}")
+    private int bulkMaxRows;
+    
     // Convert Group entity to GroupDTO
     private GroupDTO convertToDTO(Group group) {
         try {
@@ -108,6 +130,7 @@ public class GroupService {
             membership.setGroup(savedGroup);
             membership.setModerator(true);
             membershipRepo.save(membership);
+            profileService.invalidate(admin.getId());
             
             return convertToDTO(savedGroup);
         } catch (Exception e) {
@@ -136,6 +159,8 @@ public class GroupService {
                 group.setImageUrl(groupDTO.getImageUrl());
                 
                 Group updatedGroup = groupRepo.save(group);
+                // Name and image appear on every member's profile
+                profileService.invalidateAll(membershipRepo.findUserIdsByGroupId(groupId));
                 return Optional.of(convertToDTO(updatedGroup));
             }
             
@@ -160,7 +185,10 @@ public class GroupService {
                     throw new RuntimeException("Only group admin can delete the group");
                 }
                 
+                List<Long> memberIds = membershipRepo.findUserIdsByGroupId(groupId);
                 groupRepo.delete(group);
+                contentIndex.removeGroup(groupId);
+                profileService.invalidateAll(memberIds);
                 return true;
             }
             
@@ -178,18 +206,16 @@ public class GroupService {
             Group group = groupRepo.findById(groupId)
                     .orElseThrow(() -> new RuntimeException("Group not found"));
             
-            User user = userRepo.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
             // Check if user is already a member
-            if (membershipRepo.existsByGroupAndUser(group, user)) {
+            if (membershipRepo.existsByGroup_IdAndUser_Id(groupId, userId)) {
                 return false;
             }
             
             GroupMembership membership = new GroupMembership();
-            membership.setUser(user);
+            membership.setUser(userRepo.getReferenceById(userId));
             membership.setGroup(group);
             membershipRepo.save(membership);
+            profileService.invalidate(userId);
             
             return true;
         } catch (Exception e) {
@@ -205,20 +231,18 @@ public class GroupService {
             Group group = groupRepo.findById(groupId)
                     .orElseThrow(() -> new RuntimeException("Group not found"));
             
-            User user = userRepo.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
             // Admin cannot leave group
             if (group.getAdmin().getId() == userId) {
                 throw new RuntimeException("Group admin cannot leave the group. Transfer admin role first.");
             }
             
             // Check if user is a member
-            if (!membershipRepo.existsByGroupAndUser(group, user)) {
+            if (!membershipRepo.existsByGroup_IdAndUser_Id(groupId, userId)) {
                 return false;
             }
             
-            membershipRepo.deleteByGroupAndUser(group, user);
+            membershipRepo.deleteByGroup_IdAndUser_Id(groupId, userId);
+            profileService.invalidate(userId);
             return true;
         } catch (Exception e) {
             logger.error("Error leaving group {}: {}", groupId, e.getMessage(), e);
@@ -226,6 +250,51 @@ public class GroupService {
         }
     }
     
+    // Add many members in one transaction (admin only). Inserts go out in JDBC batches and the
+    // persistence context is cleared after each one, so memory stays flat. Returns how many were added
+    @Transactional
+    public int addMembers(Long groupId, Long adminId, List<Long> userIds) {
+        try {
+            Group group = groupRepo.findById(groupId)
+                    .orElseThrow(() -> new RuntimeException("Group not found"));
+            
+            if (group.getAdmin().getId() != adminId) {
+                throw new RuntimeException("Only group admin can add members");
+            }
+            if (userIds.size() > bulkMaxRows) {
+                throw new IllegalArgumentException("At most " + bulkMaxRows + " members can be added at once");
+            }
+            
+            Set<Long> requested = new LinkedHashSet<>(userIds);
+            Set<Long> known = new HashSet<>(userRepo.findExistingIds(requested));
+            if (known.size() < requested.size()) {
+                requested.removeAll(known);
+                throw new IllegalArgumentException("Unknown users: " + requested);
+            }
+            requested.removeAll(membershipRepo.findUserIdsByGroupId(groupId));
+            
+            LocalDateTime now = LocalDateTime.now();
+            int pending = 0;
+            for (Long userId : requested) {
+                GroupMembership membership = new GroupMembership();
+                membership.setGroup(groupRepo.getReferenceById(groupId));
+                membership.setUser(userRepo.getReferenceById(userId));
+                membership.setJoinedAt(now);
+                entityManager.persist(membership);
+                if (++pending == batchSize) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    pending = 0;
+                }
+            }
+            profileService.invalidateAll(requested);
+            return requested.size();
+        } catch (Exception e) {
+            logger.error("Error adding members to group {}: {}", groupId, e.getMessage(), e);
+            throw e;
+        }
+    }
+    
     // Get members of a group
     public List<User> getGroupMembers(Long groupId) {
         try {
@@ -345,6 +414,8 @@ public class GroupService {
                 membership.setModerator(true);
                 membershipRepo.save(membership);
             }
+            profileService.invalidate(currentAdminId);
+            profileService.invalidate(newAdminId);
             
             return true;
         } catch (Exception e) {
@@ -412,13 +483,7 @@ public class GroupService {
     // Check if user is member
     public boolean isMember(Long groupId, Long userId) {
         try {
-            Group group = groupRepo.findById(groupId)
-                    .orElseThrow(() -> new RuntimeException("Group not found"));
-            
-            User user = userRepo.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            return membershipRepo.existsByGroupAndUser(group, user);
+            return membershipRepo.existsByGroup_IdAndUser_Id(groupId, userId);
         } catch (Exception e) {
             logger.error("Error checking if user {} is member of group {}: {}", userId, groupId, e.getMessage(), e);
             return false;
@@ -428,14 +493,7 @@ public class GroupService {
     // Check if user is moderator
     public boolean isModerator(Long groupId, Long userId) {
         try {
-            Group group = groupRepo.findById(groupId)
-                    .orElseThrow(() -> new RuntimeException("Group not found"));
-            
-            Optional<GroupMembership> membership = membershipRepo.findByGroupAndUser(
-                    group, 
-                    userRepo.findById(userId).orElseThrow(() -> new RuntimeException("User not found")));
-            
-            return membership.map(GroupMembership::isModerator).orElse(false);
+            return membershipRepo.existsByGroup_IdAndUser_IdAndModeratorIsTrue(groupId, userId);
         } catch (Exception e) {
             logger.error("Error checking if user {} is moderator of group {}: {}", userId, groupId, e.getMessage(), e);
             return false;
@@ -445,10 +503,7 @@ public class GroupService {
     // Check if user is admin
     public boolean isAdmin(Long groupId, Long userId) {
         try {
-            Group group = groupRepo.findById(groupId)
-                    .orElseThrow(() -> new RuntimeException("Group not found"));
-            
-            return group.getAdmin().getId() == userId;
+            return groupRepo.existsByIdAndAdmin_Id(groupId, userId);
         } catch (Exception e) {
             logger.error("Error checking if user {} is admin of group {}: {}", userId, groupId, e.getMessage(), e);
             return false;
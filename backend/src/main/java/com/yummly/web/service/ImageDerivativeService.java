@@ -0,0 +1,210 @@
+package com.yummly.web.service;
+
+import com.yummly.web.repo.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates thumbnail and medium-width copies of post images in the background, so feed cards can
+ * load a few tens of kilobytes instead of the original photo. Work runs on a small bounded pool;
+ * when the queue is full the job is dropped and clients keep using the full image.
+ *
+ * <p>Derivatives are encoded as WebP when an ImageIO WebP writer is on the classpath, otherwise as
+ * JPEG (PNG for images with transparency), and stored in the content-addressed media store.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Value("${media.derivatives.thumbnail-width:320}")
+    private int thumbnailWidth;
+
+    @Value("${media.derivatives.medium-width:960}")
+    private int mediumWidth;
+
+    @Value("${media.derivatives.threads:2}")
+    private int threads;
+
+    @Value("${media.derivatives.queue-size:200}")
+    private int queueSize;
+
+    // Images larger than this are not decoded at all, to keep worker memory bounded
+    @Value("${media.derivatives.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${media.derivatives.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    private ThreadPoolExecutor workers;
+
+    private boolean webpAvailable;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        webpAvailable = ImageIO.getImageWritersByFormatName("webp").hasNext();
+        // Decode into memory rather than temp files
+        ImageIO.setUseCache(false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // Queue derivative generation for the image a post currently shows
+    public void schedule(Long postId, String imagePath) {
+        if (postId == null || imagePath == null) {
+            return;
+        }
+        try {
+            workers.execute(() -> generate(postId, imagePath));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Derivative queue full, skipping post {}", postId);
+        }
+    }
+
+    private void generate(Long postId, String imagePath) {
+        try {
+            BufferedImage source = read(mediaStorageService.resolve(imagePath));
+            if (source == null) {
+                return;
+            }
+            String thumbnail = derive(source, thumbnailWidth, imagePath);
+            String medium = derive(source, mediumWidth, imagePath);
+
+            if (postRepository.updateImageDerivatives(postId, imagePath, thumbnail, medium) == 0) {
+                // The post was deleted or its image replaced while we were working
+                releaseDerivative(thumbnail, imagePath);
+                releaseDerivative(medium, imagePath);
+            }
+        } catch (Exception e) {
+            logger.error("Error generating derivatives for post {}: {}", postId, e.getMessage(), e);
+        }
+    }
+
+    // Scale to the given width and store the result; images already that narrow are used as-is
+    private String derive(BufferedImage source, int width, String imagePath) throws IOException {
+        if (source.getWidth() <= width) {
+            return imagePath;
+        }
+        boolean alpha = source.getColorModel().hasAlpha();
+        String format = webpAvailable ? "webp" : alpha ? "png" : "jpeg";
+        BufferedImage scaled = scale(source, width, alpha);
+
+        byte[] encoded = encode(scaled, format);
+        String extension = format.equals("jpeg") ? "jpg" : format;
+        return mediaStorageService.store(new ByteArrayInputStream(encoded), "derivative." + extension, encoded.length)
+                .getFileName();
+    }
+
+    private BufferedImage read(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                logger.warn("No image reader for {}", file.getFileName());
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    logger.warn("Skipping derivatives for {}: {} pixels", file.getFileName(), pixels);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halve repeatedly, then do one final bilinear step; much sharper than a single large downscale
+    private BufferedImage scale(BufferedImage source, int targetWidth, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width > targetWidth);
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image, String format) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (format.equals("jpeg")) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private void releaseDerivative(String path, String imagePath) {
+        if (path != null && !path.equals(imagePath)) {
+            mediaStorageService.release(path);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.yummly.web.service;
+
+import com.yummly.web.repo.LikeRepository;
+import com.yummly.web.repo.PostRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory like counts per post. Reads are lock-free {@link LongAdder} sums; the counts are
+ * seeded from the likes table on first use and periodically written to {@code posts.like_count}.
+ *
+ * <p>Callers that change the likes table wrap the write in {@link #beginUpdate}/{@link #endUpdate}
+ * so that a count being seeded concurrently is never cached with the same like applied twice.
+ */
+@Service
+public class LikeCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeCounterService.class);
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${likes.counter.max-cached-posts:100000}")
+    private int maxCachedPosts;
+
+    private final ConcurrentHashMap<Long, LongAdder> counts = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private final SeedGuard seedGuard = new SeedGuard(64);
+
+    private final CacheStats stats = new CacheStats();
+
+    @PostConstruct
+    public void registerMetrics() {
+        stats.register(meterRegistry, "like-counts", counts);
+    }
+
+    public long getCount(Long postId) {
+        LongAdder count = counts.get(postId);
+        if (count != null) {
+            stats.hit();
+            return count.sum();
+        }
+        stats.miss();
+        long stamp = seedGuard.stamp(postId);
+        long seeded = likeRepository.countByPostId(postId);
+        cacheSeed(postId, seeded, stamp);
+        return seeded;
+    }
+
+    public Map<Long, Long> getCounts(Collection<Long> postIds) {
+        Map<Long, Long> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long postId : postIds) {
+            LongAdder count = counts.get(postId);
+            if (count != null) {
+                result.put(postId, count.sum());
+            } else {
+                missing.add(postId);
+            }
+        }
+        stats.hits(result.size());
+        stats.misses(missing.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long[] stamps = new long[missing.size()];
+        for (int i = 0; i < missing.size(); i++) {
+            stamps[i] = seedGuard.stamp(missing.get(i));
+        }
+        Map<Long, Long> seeded = new HashMap<>();
+        for (Object[] row : likeRepository.countByPostIds(missing)) {
+            seeded.put((Long) row[0], (Long) row[1]);
+        }
+        for (int i = 0; i < missing.size(); i++) {
+            Long postId = missing.get(i);
+            long count = seeded.getOrDefault(postId, 0L);
+            cacheSeed(postId, count, stamps[i]);
+            result.put(postId, count);
+        }
+        return result;
+    }
+
+    // Call before inserting or deleting a like row
+    public void beginUpdate(Long postId) {
+        seedGuard.begin(postId);
+    }
+
+    // Call after the like write has finished (delta 0 if nothing changed or the write failed)
+    public void endUpdate(Long postId, long delta) {
+        try {
+            LongAdder count = counts.get(postId);
+            if (count != null && delta != 0) {
+                count.add(delta);
+                dirty.add(postId);
+            }
+        } finally {
+            seedGuard.end(postId);
+        }
+    }
+
+    public void evict(Long postId) {
+        counts.remove(postId);
+        dirty.remove(postId);
+    }
+
+    // Write changed counts to posts.like_count
+    @Scheduled(fixedDelayString = "${likes.counter.flush-interval-ms:5000}")
+    public void flush() {
+        for (Long postId : dirty) {
+            dirty.remove(postId);
+            LongAdder count = counts.get(postId);
+            if (count == null) {
+                continue;
+            }
+            try {
+                postRepository.updateLikeCount(postId, count.sum());
+            } catch (Exception e) {
+                logger.error("Error flushing like count for post {}: {}", postId, e.getMessage(), e);
+                dirty.add(postId);
+            }
+        }
+
+        if (counts.size() > maxCachedPosts) {
+            // Drop clean entries, they are re-seeded on the next read
+            counts.keySet().removeIf(postId -> !dirty.contains(postId));
+        }
+    }
+
+    // Install a seeded count unless a like write overlapped the seeding query
+    private void cacheSeed(Long postId, long seeded, long stamp) {
+        if (stamp < 0) {
+            return;
+        }
+        LongAdder count = new LongAdder();
+        count.add(seeded);
+        if (counts.putIfAbsent(postId, count) != null) {
+            return;
+        }
+        if (!seedGuard.unchanged(postId, stamp)) {
+            counts.remove(postId, count);
+        }
+    }
+}
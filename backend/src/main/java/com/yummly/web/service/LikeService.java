@@ -1,16 +1,15 @@
 package com.yummly.web.service;
 
+import com.yummly.web.dto.LikeStateDTO;
 import com.yummly.web.model.Like;
-import com.yummly.web.model.Post;
-import com.yummly.web.model.User;
 import com.yummly.web.repo.LikeRepository;
 import com.yummly.web.repo.PostRepository;
 import com.yummly.web.repo.UserRepo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Optional;
 
 @Service
 public class LikeService {
@@ -24,34 +23,89 @@ public class LikeService {
     @Autowired
     private UserRepo userRepo;
 
-    public Like toggleLike(Long postId, Long userId) {
-        Optional<Like> existingLike = likeRepository.findByPostIdAndUserId(postId, userId);
-
-        if (existingLike.isPresent()) {
-            likeRepository.delete(existingLike.get());
-            return null;  // Indicates "unliked"
-        } else {
-            Post post = postRepository.findById(postId)
-                    .orElseThrow(() -> new IllegalArgumentException("Post not found with ID: " + postId));
-            User user = userRepo.findById(userId)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
-
-            Like like = new Like();
-            like.setPost(post);
-            like.setUser(user);
-            return likeRepository.save(like);  // Indicates "liked"
+    @Autowired
+    private LikeCounterService likeCounterService;
+
+    @Autowired
+    private UserLikeCache userLikeCache;
+
+    // Returns true if the post is now liked, false if it was unliked
+    public boolean toggleLike(Long postId, Long userId) {
+        long delta = 0;
+        beginUpdate(postId, userId);
+        try {
+            if (likeRepository.deleteByPostIdAndUserId(postId, userId) > 0) {
+                delta = -1;
+                return false;
+            }
+            delta = insertLike(postId, userId) ? 1 : 0;
+            return true;
+        } finally {
+            endUpdate(postId, userId, delta);
+        }
+    }
+
+    // Idempotent like, safe to repeat or race with itself
+    public LikeStateDTO like(Long postId, Long userId) {
+        long delta = 0;
+        beginUpdate(postId, userId);
+        try {
+            delta = insertLike(postId, userId) ? 1 : 0;
+        } finally {
+            endUpdate(postId, userId, delta);
+        }
+        return new LikeStateDTO(postId, true, likeCounterService.getCount(postId));
+    }
+
+    // Idempotent unlike, safe to repeat or race with itself
+    public LikeStateDTO unlike(Long postId, Long userId) {
+        long delta = 0;
+        beginUpdate(postId, userId);
+        try {
+            delta = -likeRepository.deleteByPostIdAndUserId(postId, userId);
+        } finally {
+            endUpdate(postId, userId, delta);
         }
+        return new LikeStateDTO(postId, false, likeCounterService.getCount(postId));
     }
 
     public boolean hasUserLiked(Long postId, Long userId) {
-        return likeRepository.existsByPostIdAndUserId(postId, userId);
+        return userLikeCache.hasLiked(userId, postId);
     }
 
     public long getLikeCount(Long postId) {
-        return likeRepository.countByPostId(postId);
+        return likeCounterService.getCount(postId);
     }
 
     public List<Like> getLikesByPostId(Long postId) {
         return likeRepository.findByPostId(postId);
     }
+
+    // Every like write is bracketed so the in-memory caches stay consistent with the table
+    private void beginUpdate(Long postId, Long userId) {
+        likeCounterService.beginUpdate(postId);
+        userLikeCache.beginUpdate(userId);
+    }
+
+    private void endUpdate(Long postId, Long userId, long delta) {
+        try {
+            likeCounterService.endUpdate(postId, delta);
+        } finally {
+            userLikeCache.endUpdate(userId, postId, delta);
+        }
+    }
+
+    // Returns true if a like row was inserted, false if it already existed
+    private boolean insertLike(Long postId, Long userId) {
+        try {
+            return likeRepository.insertIfAbsent(postId, userId) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Either a concurrent request inserted the same like first, or the post/user does not exist.
+            // Checking for the like row instead would misreport a race where another request unliked in between
+            if (postRepository.existsById(postId) && userRepo.existsById(userId)) {
+                return false;
+            }
+            throw new IllegalArgumentException("Post " + postId + " or user " + userId + " not found");
+        }
+    }
 }
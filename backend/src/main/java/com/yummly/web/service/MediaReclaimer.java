@@ -0,0 +1,195 @@
+package com.yummly.web.service;
+
+import com.yummly.web.repo.PostRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Periodic reconciliation of file.upload-dir against the posts table. Catches everything the
+ * release-based collector in {@link MediaStorageService} never hears about: files left by crashes
+ * and failed requests, and uploads from before media was released on update and delete.
+ *
+ * <p>The referenced paths are read as a stream, then the directory is walked and files that no
+ * post references and that are older than the grace period are deleted. Scanning and deleting are
+ * paced so the job doesn't compete with request traffic for disk I/O.
+ */
+@Service
+public class MediaReclaimer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaReclaimer.class);
+
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Files younger than this are left alone: their post may not be saved yet
+    @Value("${media.reclaim.grace-ms:86400000}")
+    private long graceMillis;
+
+    @Value("${media.reclaim.scan-batch:500}")
+    private int scanBatch;
+
+    @Value("${media.reclaim.scan-pause-ms:50}")
+    private long scanPauseMillis;
+
+    @Value("${media.reclaim.delete-pause-ms:20}")
+    private long deletePauseMillis;
+
+    @Value("${media.reclaim.max-deletes-per-run:10000}")
+    private int maxDeletesPerRun;
+
+    private Counter reclaimedBytes;
+    private Counter reclaimedFiles;
+
+    @PostConstruct
+    public void init() {
+        reclaimedBytes = Counter.builder("media.reclaimed.bytes")
+                .description("Bytes freed by deleting unreferenced media files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        reclaimedFiles = Counter.builder("media.reclaimed.files")
+                .description("Unreferenced media files deleted")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${media.reclaim.initial-delay-ms:600000}",
+               fixedDelayString = "${media.reclaim.interval-ms:21600000}")
+    public void reclaim() {
+        long started = System.currentTimeMillis();
+        try {
+            // Snapshot references first: anything stored after this is younger than the cutoff
+            long cutoff = started - graceMillis;
+            Set<String> referenced = loadReferencedPaths();
+            Sweep sweep = new Sweep(referenced, cutoff);
+            Files.walkFileTree(mediaStorageService.getUploadRoot(), sweep);
+            logger.info("Media reclamation scanned {} files, deleted {} ({} bytes) in {} ms",
+                    sweep.scanned, sweep.deleted, sweep.bytes, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.error("Error reclaiming media: {}", e.getMessage(), e);
+        }
+    }
+
+    private Set<String> loadReferencedPaths() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> {
+            Set<String> paths = new HashSet<>();
+            try (Stream<Object[]> rows = postRepository.streamMediaPaths()) {
+                rows.forEach(row -> {
+                    for (Object path : row) {
+                        if (path != null) {
+                            paths.add((String) path);
+                        }
+                    }
+                });
+            }
+            return paths;
+        });
+    }
+
+    private final class Sweep extends SimpleFileVisitor<Path> {
+
+        private final Set<String> referenced;
+        private final long cutoff;
+        private final Path root = mediaStorageService.getUploadRoot();
+        private long scanned;
+        private long deleted;
+        private long bytes;
+
+        Sweep(Set<String> referenced, long cutoff) {
+            this.referenced = referenced;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            // .partial holds in-progress chunked uploads, owned by ChunkedUploadService
+            if (!dir.equals(root) && dir.getFileName().toString().startsWith(".")) {
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (++scanned % scanBatch == 0 && !pause(scanPauseMillis)) {
+                return FileVisitResult.TERMINATE;
+            }
+            if (!attrs.isRegularFile() || attrs.lastModifiedTime().toMillis() > cutoff) {
+                return FileVisitResult.CONTINUE;
+            }
+            String fileName = root.relativize(file).toString().replace(File.separatorChar, '/');
+            if (referenced.contains(fileName)) {
+                return FileVisitResult.CONTINUE;
+            }
+
+            try {
+                // Re-checked against the database under the blob's lock, in case a post or an upload
+                // picked the file up since the snapshot
+                if (!mediaStorageService.deleteIfUnreferenced(fileName, cutoff)) {
+                    return FileVisitResult.CONTINUE;
+                }
+            } catch (IOException e) {
+                logger.warn("Could not delete orphaned media {}: {}", fileName, e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+            deleted++;
+            bytes += attrs.size();
+            reclaimedFiles.increment();
+            reclaimedBytes.increment(attrs.size());
+            logger.debug("Deleted orphaned media {}", fileName);
+
+            if (deleted >= maxDeletesPerRun) {
+                return FileVisitResult.TERMINATE;
+            }
+            return pause(deletePauseMillis) ? FileVisitResult.CONTINUE : FileVisitResult.TERMINATE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+            logger.warn("Could not read {}: {}", file, e.getMessage());
+            return FileVisitResult.CONTINUE;
+        }
+
+        private boolean pause(long millis) {
+            if (millis <= 0) {
+                return true;
+            }
+            try {
+                Thread.sleep(millis);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.yummly.web.service;
+
+import com.yummly.web.exception.FileStorageException;
+import com.yummly.web.exception.MediaTooLargeException;
+import com.yummly.web.repo.PostRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed media store under file.upload-dir. Uploads are streamed through a SHA-256
+ * digest into a temp file and then moved to {@code ab/cd/<sha256>.<ext>}, so identical files share
+ * one blob. Blobs are referenced by {@code Post.imagePath}/{@code videoPath}; paths released by post
+ * updates and deletions are deleted by {@link #collectGarbage()} once nothing references them.
+ */
+@Service
+public class MediaStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaStorageService.class);
+
+    private static final long TRANSFER_CHUNK_BYTES = 8L * 1024 * 1024;
+
+    // ab/cd/<sha256>.<ext> as written by commit()
+    private static final Pattern CONTENT_ADDRESSED =
+            Pattern.compile("([0-9a-f]{2})/([0-9a-f]{2})/(\\1\\2[0-9a-f]{60})\\.[a-z0-9]{1,10}");
+
+    private static final int MAX_CACHED_HASHES = 10000;
+
+    private static final int BLOB_LOCK_STRIPES = 64;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${media.max-image-bytes:20971520}")
+    private long maxImageBytes;
+
+    @Value("${media.max-video-bytes:1073741824}")
+    private long maxVideoBytes;
+
+    // Released blobs, and blobs written or re-used, are left alone for this long
+    @Value("${media.gc.grace-ms:600000}")
+    private long gcGraceMillis;
+
+    private Path uploadRoot;
+
+    // Released media path -> time it was released
+    private final Map<String, Long> released = new ConcurrentHashMap<>();
+
+    // Hashes of files stored before content addressing, keyed by path
+    private final Map<String, CachedHash> legacyHashes = new ConcurrentHashMap<>();
+
+    // Striped by blob path; held while commit() re-uses a blob and while collectGarbage() deletes one
+    private final ReentrantLock[] blobLocks = new ReentrantLock[BLOB_LOCK_STRIPES];
+
+    @PostConstruct
+    public void init() throws IOException {
+        uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Files.createDirectories(uploadRoot);
+        for (int i = 0; i < blobLocks.length; i++) {
+            blobLocks[i] = new ReentrantLock();
+        }
+    }
+
+    public Path getUploadRoot() {
+        return uploadRoot;
+    }
+
+    public boolean isImage(String contentType) {
+        return contentType != null && contentType.startsWith("image/");
+    }
+
+    public boolean isVideo(String contentType) {
+        return contentType != null && contentType.startsWith("video/");
+    }
+
+    public long maxBytesFor(String contentType) {
+        return isVideo(contentType) ? maxVideoBytes : maxImageBytes;
+    }
+
+    public StoredMedia store(MultipartFile file) {
+        long maxBytes = maxBytesFor(file.getContentType());
+        if (file.getSize() > maxBytes) {
+            throw new MediaTooLargeException("File exceeds the maximum size of " + maxBytes + " bytes");
+        }
+        // Let the container move (or at worst copy) its part file into place, then hash it there;
+        // copying getInputStream() through store(InputStream) would write every upload twice
+        Path temp = uploadRoot.resolve("upload-" + UUID.randomUUID() + ".tmp");
+        try {
+            file.transferTo(temp.toFile());
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new FileStorageException("Failed to read uploaded file: " + e.getMessage());
+        }
+        return adopt(temp, file.getOriginalFilename());
+    }
+
+    // Stream a request body to its final location, failing as soon as maxBytes is exceeded
+    public StoredMedia store(InputStream in, String originalName, long maxBytes) {
+        MessageDigest digest = sha256();
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(uploadRoot, "upload-", ".tmp");
+            long size;
+            try (ReadableByteChannel source = Channels.newChannel(new DigestInputStream(in, digest));
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                size = transfer(source, target, maxBytes);
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            String fileName = commit(temp, sha256, originalName);
+            temp = null;
+            return new StoredMedia(fileName, size, sha256);
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to save file: " + e.getMessage());
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    // Move a fully written file (inside the upload directory) into the store, hashing it first
+    public StoredMedia adopt(Path file, String originalName) {
+        MessageDigest digest = sha256();
+        try {
+            long size = 0;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+                int read;
+                while ((read = channel.read(buffer)) != -1) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                    size += read;
+                }
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            return new StoredMedia(commit(file, sha256, originalName), size, sha256);
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new FileStorageException("Failed to save file: " + e.getMessage());
+        }
+    }
+
+    // Move a temp file to its content address, or drop it if that blob already exists
+    private String commit(Path temp, String sha256, String originalName) throws IOException {
+        String fileName = blobPath(sha256, extensionOf(originalName));
+        Path blob = uploadRoot.resolve(fileName);
+        ReentrantLock lock = blobLock(fileName);
+        lock.lock();
+        try {
+            if (Files.exists(blob)) {
+                // Duplicate content: keep the existing blob and refresh it so the collector leaves it alone
+                Files.setLastModifiedTime(blob, FileTime.fromMillis(System.currentTimeMillis()));
+                deleteQuietly(temp);
+            } else {
+                Files.createDirectories(blob.getParent());
+                Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return fileName;
+    }
+
+    // Called when a post stops referencing a media path; the blob is deleted later if unused
+    public void release(String fileName) {
+        if (fileName != null && !fileName.isEmpty()) {
+            released.put(fileName, System.currentTimeMillis());
+        }
+    }
+
+    // Delete released blobs that are past the grace period and no longer referenced by any post
+    @Scheduled(fixedDelayString = "${media.gc.interval-ms:300000}")
+    public void collectGarbage() {
+        long cutoff = System.currentTimeMillis() - gcGraceMillis;
+        for (Map.Entry<String, Long> entry : released.entrySet()) {
+            if (entry.getValue() > cutoff) {
+                continue;
+            }
+            String fileName = entry.getKey();
+            try {
+                if (deleteIfUnreferenced(fileName, cutoff)) {
+                    logger.info("Deleted unreferenced media {}", fileName);
+                }
+                released.remove(fileName, entry.getValue());
+            } catch (Exception e) {
+                logger.error("Error collecting media {}: {}", fileName, e.getMessage(), e);
+            }
+        }
+    }
+
+    // Delete a stored file if no post references it and it was not written or re-used after cutoff.
+    // The only delete path for media: checked under the blob's lock, so a concurrent commit() either
+    // refreshes the file first or re-creates it after
+    public boolean deleteIfUnreferenced(String fileName, long cutoff) throws IOException {
+        Path blob = resolve(fileName);
+        ReentrantLock lock = blobLock(fileName);
+        lock.lock();
+        try {
+            if (!Files.exists(blob)
+                    || Files.getLastModifiedTime(blob).toMillis() > cutoff
+                    || postRepository.countMediaReferences(fileName) > 0) {
+                return false;
+            }
+            Files.delete(blob);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock blobLock(String fileName) {
+        return blobLocks[Math.floorMod(fileName.hashCode(), blobLocks.length)];
+    }
+
+    // Resolve a stored media path, refusing anything outside the upload directory
+    public Path resolve(String fileName) {
+        Path path = uploadRoot.resolve(fileName).normalize();
+        if (!path.startsWith(uploadRoot)) {
+            throw new FileStorageException("Invalid media path: " + fileName);
+        }
+        return path;
+    }
+
+    // Whether the file name is a content address, i.e. its bytes can never change
+    public boolean isContentAddressed(String fileName) {
+        return CONTENT_ADDRESSED.matcher(fileName).matches();
+    }
+
+    // SHA-256 of a stored file: read from the name when content-addressed, otherwise computed once and cached
+    public String contentHash(String fileName) throws IOException {
+        Matcher matcher = CONTENT_ADDRESSED.matcher(fileName);
+        if (matcher.matches()) {
+            return matcher.group(3);
+        }
+        Path file = resolve(fileName);
+        long size = Files.size(file);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        CachedHash cached = legacyHashes.get(fileName);
+        if (cached != null && cached.size == size && cached.modified == modified) {
+            return cached.sha256;
+        }
+
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        if (legacyHashes.size() >= MAX_CACHED_HASHES) {
+            legacyHashes.clear();
+        }
+        legacyHashes.put(fileName, new CachedHash(size, modified, sha256));
+        return sha256;
+    }
+
+    private String blobPath(String sha256, String extension) {
+        return sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + "." + extension;
+    }
+
+    private long transfer(ReadableByteChannel source, FileChannel target, long maxBytes) throws IOException {
+        long position = 0;
+        while (true) {
+            // Ask for at most one byte past the limit so oversized uploads are caught without writing them out
+            long count = Math.min(TRANSFER_CHUNK_BYTES, maxBytes + 1 - position);
+            long transferred = target.transferFrom(source, position, count);
+            if (transferred == 0) {
+                return position;
+            }
+            position += transferred;
+            if (position > maxBytes) {
+                throw new MediaTooLargeException("File exceeds the maximum size of " + maxBytes + " bytes");
+            }
+        }
+    }
+
+    private String extensionOf(String originalName) {
+        String extension = StringUtils.getFilenameExtension(originalName == null ? "" : originalName);
+        if (extension == null || !extension.matches("[A-Za-z0-9]{1,10}")) {
+            return "bin";
+        }
+        return extension.toLowerCase(Locale.ROOT);
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Best effort, a stray temp file is harmless
+        }
+    }
+
+    private static final class CachedHash {
+        final long size;
+        final long modified;
+        final String sha256;
+
+        CachedHash(long size, long modified, String sha256) {
+            this.size = size;
+            this.modified = modified;
+            this.sha256 = sha256;
+        }
+    }
+}
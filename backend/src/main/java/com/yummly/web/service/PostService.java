@@ -1,21 +1,28 @@
 package com.yummly.web.service;
+import com.yummly.web.dto.FeedPageDTO;
+import com.yummly.web.dto.PostDTO;
+import com.yummly.web.exception.MediaTooLargeException;
 import com.yummly.web.model.Post;
 import com.yummly.web.model.User;
+import com.yummly.web.repo.CommentRepository;
 import com.yummly.web.repo.PostRepository;
 import com.yummly.web.repo.UserRepo;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.*;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class PostService {
@@ -28,8 +35,23 @@ public class PostService {
     @Autowired
     private UserRepo userRepo;
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private LikeCounterService likeCounterService;
+
+    @Autowired
+    private UserLikeCache userLikeCache;
+
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ProfileService profileService;
 
     public Post createPost(String title, String description, Long userId, MultipartFile image, MultipartFile video) {
         Post post = new Post();
@@ -56,34 +78,185 @@ public class PostService {
                 post.setVideoPath(videoName);
             } catch (Exception e) {
                 logger.error("Error saving video file: " + e.getMessage());
+                mediaStorageService.release(post.getImagePath());
                 return null;
             }
         }
 
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        imageDerivativeService.schedule(saved.getId(), saved.getImagePath());
+        invalidateProfile(saved);
+        return saved;
+    }
+
+    // Update title/description and optionally replace the media; replaced files are released to the collector
+    public Post updatePost(Long id, String title, String description, MultipartFile image, MultipartFile video) {
+        Post post = getPostById(id);
+        post.setTitle(title);
+        post.setDescription(description);
+
+        String oldImage = post.getImagePath();
+        String oldVideo = post.getVideoPath();
+        if (image != null && !image.isEmpty()) {
+            post.setImagePath(saveMediaFile(image));
+        }
+        if (video != null && !video.isEmpty()) {
+            post.setVideoPath(saveMediaFile(video));
+        }
+
+        String oldThumbnail = post.getThumbnailPath();
+        String oldMedium = post.getMediumPath();
+        Post updated = postRepository.save(post);
+        releaseIfReplaced(oldImage, updated.getImagePath());
+        releaseIfReplaced(oldVideo, updated.getVideoPath());
+        refreshDerivatives(updated, oldImage, oldThumbnail, oldMedium);
+        invalidateProfile(updated);
+        return updated;
     }
 
     public String saveMediaFile(MultipartFile file) {
-        try {
-            String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            Path path = Paths.get(uploadDir + File.separator + fileName);
-            Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
-            return fileName;
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to save file", e);
+        return mediaStorageService.store(file).getFileName();
+    }
+
+    // Attach an image or video streamed as the raw request body, without multipart buffering
+    public Post attachMedia(Long postId, String contentType, long contentLength, String fileName, InputStream body) {
+        Post post = getPostById(postId);
+        boolean image = isValidImage(contentType);
+        if (!image && !isValidVideo(contentType)) {
+            throw new IllegalArgumentException("Unsupported media type: " + contentType);
+        }
+
+        // Reject on the declared length before reading anything; chunked bodies are checked while streaming
+        long maxBytes = mediaStorageService.maxBytesFor(contentType);
+        if (contentLength > maxBytes) {
+            throw new MediaTooLargeException("File exceeds the maximum size of " + maxBytes + " bytes");
+        }
+        StoredMedia media = mediaStorageService.store(body, fileName, maxBytes);
+        return setMedia(post, image, media);
+    }
+
+    // Attach media that has already been written to the store, e.g. by a chunked upload
+    public Post attachStoredMedia(Long postId, String contentType, StoredMedia media) {
+        Post post = getPostById(postId);
+        return setMedia(post, isValidImage(contentType), media);
+    }
+
+    private Post setMedia(Post post, boolean image, StoredMedia media) {
+        String oldImage = post.getImagePath();
+        String oldThumbnail = post.getThumbnailPath();
+        String oldMedium = post.getMediumPath();
+        String oldPath;
+        if (image) {
+            oldPath = oldImage;
+            post.setImagePath(media.getFileName());
+        } else {
+            oldPath = post.getVideoPath();
+            post.setVideoPath(media.getFileName());
+        }
+        Post saved = postRepository.save(post);
+        releaseIfReplaced(oldPath, media.getFileName());
+        refreshDerivatives(saved, oldImage, oldThumbnail, oldMedium);
+        invalidateProfile(saved);
+        return saved;
+    }
+
+    private void invalidateProfile(Post post) {
+        if (post.getUser() != null) {
+            profileService.invalidate(post.getUser().getId());
+        }
+    }
+
+    // After the image changes, drop the old derivatives and queue new ones
+    private void refreshDerivatives(Post post, String oldImage, String oldThumbnail, String oldMedium) {
+        if (post.getImagePath() == null || post.getImagePath().equals(oldImage)) {
+            return;
+        }
+        postRepository.clearImageDerivatives(post.getId());
+        post.setThumbnailPath(null);
+        post.setMediumPath(null);
+        mediaStorageService.release(oldThumbnail);
+        mediaStorageService.release(oldMedium);
+        imageDerivativeService.schedule(post.getId(), post.getImagePath());
+    }
+
+    private void releaseIfReplaced(String oldPath, String newPath) {
+        if (oldPath != null && !oldPath.equals(newPath)) {
+            mediaStorageService.release(oldPath);
         }
     }
 
     private boolean isValidImage(String contentType) {
-        return contentType != null && contentType.startsWith("image/");
+        return mediaStorageService.isImage(contentType);
     }
 
     private boolean isValidVideo(String contentType) {
-        return contentType != null && contentType.startsWith("video/");
+        return mediaStorageService.isVideo(contentType);
     }
 
     public List<Post> getAllPosts() {
-        return postRepository.findAll();
+        return postRepository.findAllWithUser();
+    }
+
+    // Newest-first page of posts continuing after the given cursor
+    public FeedPageDTO getFeed(String cursor, int limit, Long viewerId) {
+        long beforeId = cursor == null || cursor.isEmpty() ? Long.MAX_VALUE : decodeCursor(cursor);
+        // Fetch one extra row to find out whether another page exists
+        List<PostDTO> posts = postRepository.findFeedPage(beforeId, PageRequest.of(0, limit + 1));
+
+        String nextCursor = null;
+        if (posts.size() > limit) {
+            posts = posts.subList(0, limit);
+            nextCursor = encodeCursor(posts.get(limit - 1).getId());
+        }
+        addPostStats(posts, viewerId);
+        return new FeedPageDTO(posts, nextCursor);
+    }
+
+    // Posts for an arbitrary list of ids, with the same stats as the feed
+    public List<PostDTO> getPostsByIds(List<Long> ids, Long viewerId) {
+        List<PostDTO> posts = postRepository.findDTOsByIds(new HashSet<>(ids));
+        addPostStats(posts, viewerId);
+        return posts;
+    }
+
+    // Fill in like/comment counts and the viewer's like state with one aggregate query each
+    private void addPostStats(List<PostDTO> posts, Long viewerId) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        Set<Long> postIds = new HashSet<>();
+        posts.forEach(post -> postIds.add(post.getId()));
+
+        Map<Long, Long> likeCounts = likeCounterService.getCounts(postIds);
+        Map<Long, Long> commentCounts = toCountMap(commentRepository.countByPostIds(postIds));
+        Set<Long> likedPostIds = viewerId == null ? new HashSet<>() : userLikeCache.likedAmong(viewerId, postIds);
+
+        for (PostDTO post : posts) {
+            post.setLikeCount(likeCounts.getOrDefault(post.getId(), 0L));
+            post.setCommentCount(commentCounts.getOrDefault(post.getId(), 0L));
+            post.setLikedByViewer(likedPostIds.contains(post.getId()));
+        }
+    }
+
+    private Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private String encodeCursor(Long postId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(postId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid feed cursor: " + cursor);
+        }
     }
 
     public Post getPostById(Long id) {
@@ -92,11 +265,16 @@ public class PostService {
     }
 
     public void deletePost(Long id) {
+        Post post = postRepository.findById(id).orElse(null);
         postRepository.deleteById(id);
-    }
-
-    public Post updatePost(Post post) {
-        return postRepository.save(post);
+        likeCounterService.evict(id);
+        if (post != null) {
+            mediaStorageService.release(post.getImagePath());
+            mediaStorageService.release(post.getVideoPath());
+            mediaStorageService.release(post.getThumbnailPath());
+            mediaStorageService.release(post.getMediumPath());
+            invalidateProfile(post);
+        }
     }
 
     public List<Post> getPostsByUserId(Long userId) {
@@ -0,0 +1,162 @@
+package com.yummly.web.service;
+
+import com.yummly.web.dto.ProfileSummaryDTO;
+import com.yummly.web.model.User;
+import com.yummly.web.repo.GroupMembershipRepo;
+import com.yummly.web.repo.GroupRepo;
+import com.yummly.web.repo.PostRepository;
+import com.yummly.web.repo.UserRepo;
+import com.yummly.web.repository.RecipeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user profile summary: counts plus the latest few posts, recipes and groups, built from
+ * count and projection queries and cached for {@code profile.cache.ttl-ms}. Write paths that change
+ * what a profile shows call {@link #invalidate}; the TTL only bounds staleness from anything they miss.
+ */
+@Service
+public class ProfileService {
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private GroupMembershipRepo membershipRepo;
+
+    @Autowired
+    private GroupRepo groupRepo;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${profile.latest-items:5}")
+    private int latestItems;
+
+    @Value("${profile.cache.ttl-ms:60000}")
+    private long ttlMillis;
+
+    @Value("${profile.cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final ConcurrentHashMap<Long, CachedSummary> summaries = new ConcurrentHashMap<>();
+
+    private final SeedGuard seedGuard = new SeedGuard(64);
+
+    private final CacheStats stats = new CacheStats();
+
+    @PostConstruct
+    public void registerMetrics() {
+        stats.register(meterRegistry, "profile-summaries", summaries);
+    }
+
+    public ProfileSummaryDTO getSummary(Long userId) {
+        CachedSummary cached = summaries.get(userId);
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            stats.hit();
+            return cached.summary;
+        }
+        stats.miss();
+
+        long stamp = seedGuard.stamp(userId);
+        ProfileSummaryDTO summary = load(userId);
+        if (stamp >= 0) {
+            evictIfFull();
+            CachedSummary fresh = new CachedSummary(summary, System.currentTimeMillis() + ttlMillis);
+            summaries.put(userId, fresh);
+            if (!seedGuard.unchanged(userId, stamp)) {
+                summaries.remove(userId, fresh);
+            }
+        }
+        return summary;
+    }
+
+    // Drop the user's cached summary once the caller's transaction (if any) has committed
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    public void invalidateAll(Collection<Long> userIds) {
+        userIds.forEach(this::invalidate);
+    }
+
+    private ProfileSummaryDTO load(Long userId) {
+        User user = userRepo.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
+        PageRequest latest = PageRequest.of(0, latestItems);
+
+        ProfileSummaryDTO summary = new ProfileSummaryDTO();
+        summary.setUserId(userId);
+        summary.setName(user.getName());
+        summary.setPostCount(postRepository.countByUser_Id(userId));
+        summary.setRecipeCount(recipeRepository.countByUser_Id(userId));
+        summary.setGroupCount(membershipRepo.countByUser_Id(userId));
+        summary.setAdminGroupCount(groupRepo.countByAdmin_Id(userId));
+        summary.setLatestPosts(postRepository.findLatestByUserId(userId, latest));
+        summary.setLatestRecipes(recipeRepository.findLatestItemsByUserId(userId, latest));
+        summary.setGroups(membershipRepo.findGroupItemsByUserId(userId, latest));
+        return summary;
+    }
+
+    private void evict(Long userId) {
+        seedGuard.begin(userId);
+        try {
+            summaries.remove(userId);
+        } finally {
+            seedGuard.end(userId);
+        }
+    }
+
+    // Drop expired entries, then an arbitrary slice if the cache is still full
+    private void evictIfFull() {
+        if (summaries.size() < maxEntries) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        summaries.values().removeIf(cached -> cached.expiresAt <= now);
+        int toEvict = summaries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<Long> users = summaries.keySet().iterator();
+        while (users.hasNext() && toEvict-- > 0) {
+            users.next();
+            users.remove();
+        }
+    }
+
+    private static final class CachedSummary {
+        final ProfileSummaryDTO summary;
+        final long expiresAt;
+
+        CachedSummary(ProfileSummaryDTO summary, long expiresAt) {
+            this.summary = summary;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.yummly.web.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tells a cache whether a value it just loaded from the database may have missed (or double
+ * counted) a concurrent write. Writers bracket their database change with {@link #begin} and
+ * {@link #end}; a loader takes a {@link #stamp} before its query, installs the value, and keeps it
+ * only if the stamp is still {@link #unchanged} afterwards. Keys are grouped into stripes, so an
+ * unrelated write on the same stripe just costs an uncached load.
+ */
+final class SeedGuard {
+
+    private final AtomicLongArray inFlight;
+    private final AtomicLongArray completed;
+    private final int mask;
+
+    SeedGuard(int stripes) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two: " + stripes);
+        }
+        this.inFlight = new AtomicLongArray(stripes);
+        this.completed = new AtomicLongArray(stripes);
+        this.mask = stripes - 1;
+    }
+
+    void begin(long key) {
+        inFlight.incrementAndGet(stripe(key));
+    }
+
+    void end(long key) {
+        int stripe = stripe(key);
+        completed.incrementAndGet(stripe);
+        inFlight.decrementAndGet(stripe);
+    }
+
+    // -1 if a write is in progress, meaning the load must not be cached
+    long stamp(long key) {
+        int stripe = stripe(key);
+        long stamp = completed.get(stripe);
+        return inFlight.get(stripe) == 0 ? stamp : -1;
+    }
+
+    boolean unchanged(long key, long stamp) {
+        int stripe = stripe(key);
+        return stamp >= 0 && inFlight.get(stripe) == 0 && completed.get(stripe) == stamp;
+    }
+
+    private int stripe(long key) {
+        return (int) (key & mask);
+    }
+}
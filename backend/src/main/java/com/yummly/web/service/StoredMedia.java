@@ -0,0 +1,28 @@
+package com.yummly.web.service;
+
+// Result of writing an upload to the media directory
+public class StoredMedia {
+
+    private final String fileName;
+    private final long size;
+    private final String sha256;
+
+    public StoredMedia(String fileName, long size, String sha256) {
+        this.fileName = fileName;
+        this.size = size;
+        this.sha256 = sha256;
+    }
+
+    // Path relative to file.upload-dir, as stored on Post
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+}
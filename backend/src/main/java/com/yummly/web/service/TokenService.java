@@ -0,0 +1,116 @@
+package com.yummly.web.service;
+
+import com.yummly.web.config.AuthPrincipal;
+import com.yummly.web.dto.UserSummaryDTO;
+import com.yummly.web.repo.GroupMembershipRepo;
+import com.yummly.web.repo.GroupRepo;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Issues and verifies the HS256 tokens handed out at login. The key and parser are built once at
+ * startup, so verifying a request is an HMAC and a small JSON parse with no database access.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String CLAIM_NAME = "name";
+    private static final String CLAIM_ADMIN_GROUPS = "adm";
+    private static final String CLAIM_MODERATOR_GROUPS = "mod";
+
+    @Autowired
+    private GroupRepo groupRepo;
+
+    @Autowired
+    private GroupMembershipRepo membershipRepo;
+
+    // Base64-encoded, at least 256 bits; shared by every instance behind the load balancer
+    @Value("${auth.jwt.secret:}")
+    private String secret;
+
+    @Value("${auth.jwt.ttl-ms:86400000}")
+    private long ttlMillis;
+
+    // Keeps the Authorization header small for users in a lot of groups
+    @Value("${auth.jwt.max-group-claims:100}")
+    private int maxGroupClaims;
+
+    private SecretKey key;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        if (secret == null || secret.isBlank()) {
+            // Tokens from this key die with the process, which is only acceptable for a single dev instance
+            logger.warn("auth.jwt.secret is not set; using a random key, tokens will not survive a restart");
+            key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        } else {
+            key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret.trim()));
+        }
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+    }
+
+    public String issue(UserSummaryDTO user) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject(String.valueOf(user.getId()))
+                .claim(CLAIM_NAME, user.getName())
+                .claim(CLAIM_ADMIN_GROUPS, limit(groupRepo.findIdsByAdminId(user.getId())))
+                .claim(CLAIM_MODERATOR_GROUPS, limit(membershipRepo.findModeratedGroupIdsByUserId(user.getId())))
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttlMillis))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    // Empty if the token is malformed, tampered with or expired
+    public Optional<AuthPrincipal> verify(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            return Optional.of(new AuthPrincipal(
+                    Long.parseLong(claims.getSubject()),
+                    claims.get(CLAIM_NAME, String.class),
+                    toIds(claims.get(CLAIM_ADMIN_GROUPS)),
+                    toIds(claims.get(CLAIM_MODERATOR_GROUPS))));
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private List<Long> limit(List<Long> ids) {
+        return ids.size() > maxGroupClaims ? ids.subList(0, maxGroupClaims) : ids;
+    }
+
+    // JSON numbers come back as Integer or Long depending on size
+    private static List<Long> toIds(Object claim) {
+        List<Long> ids = new ArrayList<>();
+        if (claim instanceof List<?> values) {
+            for (Object value : values) {
+                if (value instanceof Number number) {
+                    ids.add(number.longValue());
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,155 @@
+package com.yummly.web.service;
+
+import com.yummly.web.repo.LikeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user sorted array of liked post ids, loaded with one query and then kept current by
+ * {@link LikeService}, so "has this user liked these posts" is answered from memory.
+ * Users with more likes than {@code likes.user-cache.max-likes-per-user} fall back to the database.
+ */
+@Service
+public class UserLikeCache {
+
+    // Marker for users whose likes are not cached
+    private static final long[] UNCACHED = new long[0];
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${likes.user-cache.max-users:10000}")
+    private int maxUsers;
+
+    @Value("${likes.user-cache.max-likes-per-user:20000}")
+    private int maxLikesPerUser;
+
+    private final ConcurrentHashMap<Long, long[]> likedByUser = new ConcurrentHashMap<>();
+
+    private final SeedGuard seedGuard = new SeedGuard(64);
+
+    private final CacheStats stats = new CacheStats();
+
+    @PostConstruct
+    public void registerMetrics() {
+        stats.register(meterRegistry, "user-likes", likedByUser);
+    }
+
+    public boolean hasLiked(Long userId, Long postId) {
+        long[] liked = get(userId);
+        if (liked == UNCACHED) {
+            return likeRepository.existsByPostIdAndUserId(postId, userId);
+        }
+        return Arrays.binarySearch(liked, postId) >= 0;
+    }
+
+    // The subset of postIds the user has liked
+    public Set<Long> likedAmong(Long userId, Collection<Long> postIds) {
+        long[] liked = get(userId);
+        if (liked == UNCACHED) {
+            return new HashSet<>(likeRepository.findLikedPostIds(userId, postIds));
+        }
+        Set<Long> result = new HashSet<>();
+        for (Long postId : postIds) {
+            if (Arrays.binarySearch(liked, postId) >= 0) {
+                result.add(postId);
+            }
+        }
+        return result;
+    }
+
+    // Call before inserting or deleting a like row
+    public void beginUpdate(Long userId) {
+        seedGuard.begin(userId);
+    }
+
+    // Call after the like write has finished; change is +1 (liked), -1 (unliked) or 0 (no change)
+    public void endUpdate(Long userId, Long postId, long change) {
+        try {
+            if (change > 0) {
+                likedByUser.computeIfPresent(userId, (id, liked) -> liked == UNCACHED ? liked : insert(liked, postId));
+            } else if (change < 0) {
+                likedByUser.computeIfPresent(userId, (id, liked) -> liked == UNCACHED ? liked : remove(liked, postId));
+            }
+        } finally {
+            seedGuard.end(userId);
+        }
+    }
+
+    private long[] get(Long userId) {
+        long[] liked = likedByUser.get(userId);
+        if (liked != null) {
+            stats.hit();
+            return liked;
+        }
+        stats.miss();
+
+        long stamp = seedGuard.stamp(userId);
+        List<Long> postIds = likeRepository.findPostIdsByUserId(userId, PageRequest.of(0, maxLikesPerUser + 1));
+        if (postIds.size() > maxLikesPerUser) {
+            liked = UNCACHED;
+        } else {
+            liked = postIds.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+
+        if (stamp >= 0) {
+            evictIfFull();
+            if (likedByUser.putIfAbsent(userId, liked) == null && !seedGuard.unchanged(userId, stamp)) {
+                likedByUser.remove(userId, liked);
+            }
+        }
+        return liked;
+    }
+
+    // Drop an arbitrary slice of users once the cache is full
+    private void evictIfFull() {
+        if (likedByUser.size() < maxUsers) {
+            return;
+        }
+        int toEvict = Math.max(1, maxUsers / 10);
+        Iterator<Long> users = likedByUser.keySet().iterator();
+        while (users.hasNext() && toEvict-- > 0) {
+            users.next();
+            users.remove();
+        }
+    }
+
+    private static long[] insert(long[] liked, long postId) {
+        int index = Arrays.binarySearch(liked, postId);
+        if (index >= 0) {
+            return liked;
+        }
+        int at = -index - 1;
+        long[] updated = new long[liked.length + 1];
+        System.arraycopy(liked, 0, updated, 0, at);
+        updated[at] = postId;
+        System.arraycopy(liked, at, updated, at + 1, liked.length - at);
+        return updated;
+    }
+
+    private static long[] remove(long[] liked, long postId) {
+        int index = Arrays.binarySearch(liked, postId);
+        if (index < 0) {
+            return liked;
+        }
+        long[] updated = new long[liked.length - 1];
+        System.arraycopy(liked, 0, updated, 0, index);
+        System.arraycopy(liked, index + 1, updated, index, liked.length - index - 1);
+        return updated;
+    }
+}
@@ -1,18 +1,36 @@
 package com.yummly.web.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.yummly.web.dto.UserDTO;
+import com.yummly.web.dto.UserPageDTO;
+import com.yummly.web.dto.UserSummaryDTO;
+import com.yummly.web.exception.DuplicateEmailException;
 import com.yummly.web.model.User;
 import com.yummly.web.repo.UserRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 
 import org.modelmapper.ModelMapper;
 import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Transactional
@@ -23,28 +41,157 @@ public class UserService {
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${users.export.batch-size:1000}")
+    private int exportBatchSize;
+
+    @Value("${users.email-cache.max-entries:100000}")
+    private int maxCachedEmails;
+
+    // email -> user id for logins; entries are checked against the loaded user, so a stale one is harmless
+    private final ConcurrentHashMap<String, Long> idsByEmail = new ConcurrentHashMap<>();
+
+    private final CacheStats emailStats = new CacheStats();
+
+    @PostConstruct
+    public void registerMetrics() {
+        emailStats.register(meterRegistry, "user-emails", idsByEmail);
+    }
+
     public List<UserDTO> getAllUsers(){
         List<User>userList = userRepo.findAll();
         return modelMapper.map(userList,new TypeToken<List<UserDTO>>(){}.getType());
     }
 
+    // One page of the directory in id order; pass nextCursor from the previous page to continue
+    @Transactional(readOnly = true)
+    public UserPageDTO getUsersPage(String cursor, int limit) {
+        // Fetch one extra row to find out whether another page exists
+        List<UserSummaryDTO> users = userRepo.findSummariesAfter(decodeCursor(cursor), PageRequest.of(0, limit + 1));
+
+        String nextCursor = null;
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+            nextCursor = encodeCursor(users.get(limit - 1).getId());
+        }
+        return new UserPageDTO(users, nextCursor);
+    }
+
+    // Writes every user with an id above afterId as NDJSON, one keyset batch at a time. Each batch is its own
+    // short query, so memory stays at one batch and no connection is held while the client reads.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportUsers(long afterId, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(UserSummaryDTO.class);
+        List<UserSummaryDTO> batch;
+        do {
+            batch = userRepo.findSummariesAfter(afterId, PageRequest.of(0, exportBatchSize));
+            for (UserSummaryDTO user : batch) {
+                out.write(writer.writeValueAsBytes(user));
+                out.write('\n');
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+            out.flush();
+        } while (batch.size() == exportBatchSize);
+    }
+
+    private String encodeCursor(Long userId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(userId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid user cursor: " + cursor);
+        }
+    }
+
 
      public UserDTO saveUser(UserDTO userDTO) {
-        userRepo.save(modelMapper.map(userDTO,User.class));
+        if (userRepo.existsByEmail(userDTO.getEmail())) {
+            throw new DuplicateEmailException("Email is already registered: " + userDTO.getEmail());
+        }
+        try {
+            userRepo.saveAndFlush(modelMapper.map(userDTO,User.class));
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with another signup using the same email
+            throw new DuplicateEmailException("Email is already registered: " + userDTO.getEmail());
+        }
         return userDTO;
      }
 
      public UserDTO updateUser(UserDTO userDTO){
+        Optional<Long> owner = userRepo.findIdByEmail(userDTO.getEmail());
+        if (owner.isPresent() && owner.get() != userDTO.getId()) {
+            throw new DuplicateEmailException("Email is already registered: " + userDTO.getEmail());
+        }
+        userRepo.findById(userDTO.getId()).ifPresent(existing -> idsByEmail.remove(existing.getEmail()));
         userRepo.save(modelMapper.map(userDTO,User.class));
         return userDTO;
      }
 
 
     public String deleteUser(UserDTO userDTO){
+        userRepo.findById(userDTO.getId()).ifPresent(existing -> idsByEmail.remove(existing.getEmail()));
         userRepo.delete(modelMapper.map(userDTO ,User.class));
         return "User Deleted";
     }
 
+    // The user's public details if the credentials match
+    @Transactional(readOnly = true)
+    public Optional<UserSummaryDTO> login(String email, String password) {
+        if (email == null || password == null) {
+            return Optional.empty();
+        }
+        Long userId = idsByEmail.get(email);
+        if (userId != null) {
+            emailStats.hit();
+        } else {
+            emailStats.miss();
+            Optional<Long> found = userRepo.findIdByEmail(email);
+            if (found.isEmpty()) {
+                return Optional.empty();
+            }
+            userId = found.get();
+            cacheEmail(email, userId);
+        }
+
+        Optional<User> user = userRepo.findById(userId);
+        if (user.isEmpty() || !email.equals(user.get().getEmail())) {
+            // The account was deleted or its email changed since it was cached
+            idsByEmail.remove(email, userId);
+            return user.isEmpty() ? Optional.empty() : login(email, password);
+        }
+        if (!password.equals(user.get().getPassword())) {
+            return Optional.empty();
+        }
+        return Optional.of(new UserSummaryDTO(user.get().getId(), user.get().getName(), user.get().getEmail()));
+    }
+
+    private void cacheEmail(String email, Long userId) {
+        if (idsByEmail.size() >= maxCachedEmails) {
+            // Drop an arbitrary slice rather than tracking recency
+            int toEvict = Math.max(1, maxCachedEmails / 10);
+            Iterator<String> emails = idsByEmail.keySet().iterator();
+            while (emails.hasNext() && toEvict-- > 0) {
+                emails.next();
+                emails.remove();
+            }
+        }
+        idsByEmail.put(email, userId);
+    }
+
     public User getUserByEmail(String email) {
 
         return userRepo.findByEmail(email);
@@ -0,0 +1,193 @@
+package com.yummly.web.controller;
+
+import com.yummly.web.service.MediaStorageService;
+import com.yummly.web.service.StoredMedia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MediaControllerTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path uploadDir;
+
+    private MockMvc mockMvc;
+    private StoredMedia media;
+    private String url;
+    private String etag;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MediaStorageService storage = new MediaStorageService();
+        ReflectionTestUtils.setField(storage, "uploadDir", uploadDir.toString());
+        storage.init();
+        media = storage.store(new ByteArrayInputStream(CONTENT), "clip.mp4", 1024);
+        url = "/uploads/" + media.getFileName();
+        etag = "\"" + media.getSha256() + "\"";
+
+        MediaController controller = new MediaController();
+        ReflectionTestUtils.setField(controller, "mediaStorageService", storage);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void servesWholeFileWithValidators() throws Exception {
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "video/mp4"))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void headSendsHeadersOnly() throws Exception {
+        mockMvc.perform(head(url))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void servesSingleRange() throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/20"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void servesOpenEndedAndSuffixRanges() throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=15-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 15-19/20"))
+                .andExpect(content().string("fghij"));
+
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 17-19/20"))
+                .andExpect(content().string("hij"));
+    }
+
+    @Test
+    void servesMultipleRangesAsMultipart() throws Exception {
+        MvcResult result = mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-1, 10-12"))
+                .andExpect(status().isPartialContent())
+                .andReturn();
+
+        String contentType = result.getResponse().getContentType();
+        assertThat(contentType).startsWith("multipart/byteranges; boundary=");
+        String boundary = contentType.substring(contentType.indexOf("boundary=") + "boundary=".length());
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        assertThat((long) body.length).isEqualTo(Long.parseLong(result.getResponse().getHeader(HttpHeaders.CONTENT_LENGTH)));
+        String text = new String(body, StandardCharsets.US_ASCII);
+        assertThat(text).isEqualTo(
+                "\r\n--" + boundary + "\r\n"
+                        + "Content-Type: video/mp4\r\n"
+                        + "Content-Range: bytes 0-1/20\r\n\r\n"
+                        + "01"
+                        + "\r\n--" + boundary + "\r\n"
+                        + "Content-Type: video/mp4\r\n"
+                        + "Content-Range: bytes 10-12/20\r\n\r\n"
+                        + "abc"
+                        + "\r\n--" + boundary + "--\r\n");
+    }
+
+    @Test
+    void coalescesOverlappingRanges() throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=4-8,0-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-8/20"))
+                .andExpect(content().string("012345678"));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=50-60"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */20"));
+    }
+
+    @Test
+    void ignoresMalformedRange() throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=5-2"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void returnsNotModifiedForMatchingEtag() throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void notModifiedTakesPrecedenceOverRange() throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag).header(HttpHeaders.RANGE, "bytes=0-1"))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void honoursRangeOnlyWhenIfRangeMatches() throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-1").header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("01"));
+
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-1").header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(CONTENT));
+
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-1").header(HttpHeaders.IF_RANGE, "W/" + etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void legacyFilesGetHashEtagButRevalidate() throws Exception {
+        Files.write(uploadDir.resolve("1234_photo.jpg"), CONTENT);
+
+        mockMvc.perform(get("/uploads/1234_photo.jpg"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, no-cache"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"));
+    }
+
+    @Test
+    void refusesPathsOutsideTheStore() throws Exception {
+        Files.createDirectories(uploadDir.resolve(".partial"));
+        Files.write(uploadDir.resolve(".partial").resolve("upload.part"), CONTENT);
+
+        mockMvc.perform(get("/uploads/.partial/upload.part")).andExpect(status().isNotFound());
+        mockMvc.perform(get(URI.create("/uploads/../secret.txt"))).andExpect(status().isNotFound());
+        mockMvc.perform(get(URI.create("/uploads/%2e%2e/secret.txt"))).andExpect(status().isNotFound());
+        mockMvc.perform(get("/uploads/missing.jpg")).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,73 @@
+package com.yummly.web.controller;
+
+import com.yummly.web.model.Post;
+import com.yummly.web.model.User;
+import com.yummly.web.repo.PostRepository;
+import com.yummly.web.repo.UserRepo;
+import com.yummly.web.support.MaxQueries;
+import com.yummly.web.support.QueryCountExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Query budgets for the hot read endpoints; each stays flat however many rows the page holds
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(QueryCountExtension.class)
+class QueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    private long userId;
+
+    @BeforeEach
+    void seed() {
+        User user = new User();
+        user.setName("Budget Tester");
+        user.setEmail("budget-" + System.nanoTime() + "@example.com");
+        user.setPassword("secret");
+        userId = userRepo.save(user).getId();
+
+        for (int i = 0; i < 5; i++) {
+            Post post = new Post();
+            post.setTitle("Post " + i);
+            post.setDescription("Query budget fixture");
+            post.setUser(user);
+            postRepository.save(post);
+        }
+    }
+
+    // Page, like counts, comment counts, viewer's likes
+    @Test
+    @MaxQueries(4)
+    void feedPage() throws Exception {
+        mockMvc.perform(get("/api/posts/feed")
+                        .param("limit", "5")
+                        .param("userId", String.valueOf(userId)))
+                .andExpect(status().isOk());
+    }
+
+    // User, four counts, three latest-item lists
+    @Test
+    @MaxQueries(8)
+    void profileSummary() throws Exception {
+        mockMvc.perform(get("/api/profile/" + userId))
+                .andExpect(status().isOk());
+    }
+}
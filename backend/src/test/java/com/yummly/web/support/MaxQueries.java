@@ -0,0 +1,18 @@
+package com.yummly.web.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the test if it issues more SQL statements than {@link #value}. Counts everything the test
+ * method runs on its own thread, including MockMvc requests; {@code @BeforeEach} setup is not
+ * counted. Needs {@link QueryCountExtension}. On a class it applies to every test method that
+ * doesn't declare its own budget.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxQueries {
+    int value();
+}
@@ -0,0 +1,55 @@
+package com.yummly.web.support;
+
+import com.yummly.web.config.QueryCountInspector;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Enforces {@link MaxQueries} budgets using the application's {@link QueryCountInspector}, so it
+ * only sees statements when the Spring context (and with it Hibernate) is running in the test.
+ * A failure lists every statement by call site, which is usually enough to find the N+1 loop.
+ */
+public class QueryCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        if (budget(context).isPresent()) {
+            QueryCountInspector.begin(0);
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        Optional<MaxQueries> budget = budget(context);
+        if (budget.isEmpty()) {
+            return;
+        }
+        int statements = QueryCountInspector.current();
+        Map<String, Integer> sites = QueryCountInspector.sites();
+        QueryCountInspector.end();
+
+        if (statements > budget.get().value()) {
+            throw new AssertionError("Expected at most " + budget.get().value() + " SQL statements but "
+                    + context.getDisplayName() + " issued " + statements + ":\n" + describe(sites));
+        }
+    }
+
+    private static Optional<MaxQueries> budget(ExtensionContext context) {
+        Optional<MaxQueries> onMethod = AnnotationSupport.findAnnotation(context.getElement(), MaxQueries.class);
+        return onMethod.isPresent()
+                ? onMethod
+                : AnnotationSupport.findAnnotation(context.getTestClass(), MaxQueries.class);
+    }
+
+    private static String describe(Map<String, Integer> sites) {
+        return sites.entrySet().stream()
+                .map(site -> "  " + site.getValue() + "x " + site.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+}
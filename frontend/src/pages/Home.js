@@ -1,22 +1,32 @@
 import React, { useEffect, useState } from 'react';
 import axios from 'axios';
 import { useNavigate } from 'react-router-dom';
+import { useUser } from './UserContext';
 import '../styles/Home.css';
 
 function Home() {
   const [posts, setPosts] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const navigate = useNavigate();
+  const { user } = useUser();
+  const viewerId = user ? user.id : undefined;
 
-  useEffect(() => {
-    // Fetch posts
-    axios.get('/api/posts/')
+  const loadPosts = (cursor) => {
+    axios.get('/api/posts/feed', { params: { cursor, userId: viewerId } })
       .then(response => {
-        setPosts(response.data);
+        setPosts(prev => (cursor ? [...prev, ...response.data.items] : response.data.items));
+        setNextCursor(response.data.nextCursor);
       })
       .catch(error => {
         console.error('Error fetching posts:', error);
       });
-  }, []);
+  };
+
+  useEffect(() => {
+    // Fetch the first page of posts
+    loadPosts(null);
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [viewerId]);
 
   return (
     <div className="home-container">
@@ -53,7 +63,12 @@ function Home() {
 
               {post.imagePath && (
                 <img
-                  src={`/uploads/${post.imagePath}`}
+                  src={`/uploads/${post.mediumPath || post.imagePath}`}
+                  srcSet={post.thumbnailPath && post.mediumPath
+                    ? `/uploads/${post.thumbnailPath} 320w, /uploads/${post.mediumPath} 960w`
+                    : undefined}
+                  sizes="(max-width: 600px) 100vw, 600px"
+                  loading="lazy"
                   alt={post.title}
                   className="post-image"
                 />
@@ -62,14 +77,20 @@ function Home() {
               <p className="post-description">{post.description}</p>
 
               <div className="post-actions">
-                <button>❤️ Like</button>
-                <button>💬 Comment</button>
+                <button>{post.likedByViewer ? '❤️' : '🤍'} Like ({post.likeCount})</button>
+                <button>💬 Comment ({post.commentCount})</button>
                 <button>🔗 Share</button>
               </div>
             </div>
           );
         })}
       </div>
+
+      {nextCursor && (
+        <button onClick={() => loadPosts(nextCursor)} className="btn load-more-btn">
+          Load More
+        </button>
+      )}
     </div>
   );
 }
@@ -13,17 +13,21 @@ function Login() {
   const handleLogin = async (e) => {
     e.preventDefault();
 
+    // A stale token from an earlier session must not ride along on the login itself
+    localStorage.removeItem('token');
+    delete axios.defaults.headers.common['Authorization'];
+
     try {
       const res = await axios.post('/api/v1/login', {
         email,
         password,
       });
 
-      const userData = res.data;
-      const token = 'dummy-token';
+      const { user: userData, token } = res.data;
 
       localStorage.setItem('user', JSON.stringify(userData));
       localStorage.setItem('token', token);
+      axios.defaults.headers.common['Authorization'] = `Bearer ${token}`;
 
       setUser(userData);
       navigate('/home');
@@ -7,6 +7,7 @@ import '../styles/profile.css';
 function UserProfile() {
   const [user, setUser] = useState(null);
   const [posts, setPosts] = useState([]);
+  const [summary, setSummary] = useState(null);
   const [editingPostId, setEditingPostId] = useState(null);
   const [formData, setFormData] = useState({ title: '', description: '' });
   const [media, setMedia] = useState({ image: null, video: null });
@@ -18,9 +19,19 @@ function UserProfile() {
       const parsedUser = JSON.parse(storedUser);
       setUser(parsedUser);
       fetchUserPosts(parsedUser.id);
+      fetchSummary(parsedUser.id);
     }
   }, []);
 
+  const fetchSummary = async (userId) => {
+    try {
+      const res = await axios.get(`/api/profile/${userId}`);
+      setSummary(res.data);
+    } catch (err) {
+      console.error("Error fetching profile summary:", err);
+    }
+  };
+
   const fetchUserPosts = async (userId) => {
     try {
       const res = await axios.get(`/api/posts/user/${userId}`);
@@ -84,6 +95,7 @@ function UserProfile() {
       await axios.delete(`/api/posts/${postId}`);
       Swal.fire('Deleted!', 'Your post has been deleted.', 'success');
       setPosts(posts.filter(post => post.id !== postId)); // Remove deleted post from the state
+      fetchSummary(user.id);
     } catch (err) {
       console.error('Error deleting post:', err);
       Swal.fire('Oops!', 'Something went wrong.', 'error');
@@ -92,6 +104,8 @@ function UserProfile() {
 
   const handleLogout = () => {
     localStorage.removeItem('user'); // Remove user from localStorage
+    localStorage.removeItem('token');
+    delete axios.defaults.headers.common['Authorization'];
     navigate('/'); // Navigate to the login page (or home page if you prefer)
   };
 
@@ -105,6 +119,17 @@ function UserProfile() {
     <div className="user-profile">
       <h2>Welcome, {user.name}!</h2>
 
+      {summary && (
+        <div className="profile-stats">
+          <span>{summary.postCount} posts</span>
+          <span>{summary.recipeCount} recipes</span>
+          <span>{summary.groupCount} groups</span>
+          {summary.groups.length > 0 && (
+            <p>Groups: {summary.groups.map(group => group.title).join(', ')}</p>
+          )}
+        </div>
+      )}
+
       {/* Home and Logout buttons */}
       <div className="profile-actions">
         <button onClick={handleHome} className="btn home-btn">Home</button>